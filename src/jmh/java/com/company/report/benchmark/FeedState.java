@@ -0,0 +1,60 @@
+package com.company.report.benchmark;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import com.company.report.entity.Instruction;
+
+/**
+ * The synthetic data feed shared by the benchmarks. The shape of the feed is
+ * controlled with the JMH parameters, eg:
+ * <code>-p rows=1000000 -p entities=50000 -p dateSpread=365</code>
+ *
+ * The instructions are generated once for each trial, both as the objects and
+ * as the data feed file.
+ *
+ * @author prejith.devarajan
+ *
+ */
+@State(Scope.Benchmark)
+public class FeedState {
+
+	@Param("100000")
+	public int rows;
+
+	@Param("1000")
+	public int entities;
+
+	@Param("SGD:40,AED:20,EUR:30,SAR:10")
+	public String currencyMix;
+
+	@Param("30")
+	public int dateSpread;
+
+	public List<Instruction> instructions;
+
+	public Path feedPath;
+
+	@Setup(Level.Trial)
+	public void generateFeed() throws IOException {
+		final InstructionGenerator generator = new InstructionGenerator(entities, currencyMix, dateSpread, 42);
+
+		instructions = generator.generate(rows);
+		feedPath = Files.createTempFile("trade-instructions", ".csv");
+		generator.writeFeed(feedPath, rows);
+	}
+
+	@TearDown(Level.Trial)
+	public void deleteFeed() throws IOException {
+		Files.deleteIfExists(feedPath);
+	}
+}
@@ -0,0 +1,124 @@
+package com.company.report.benchmark;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+import com.company.report.entity.Instruction;
+import com.company.report.entity.TradeTxn;
+import com.company.report.utils.DailyTradeReportingConstants;
+
+/**
+ * The generator of the synthetic trade instructions for the benchmarks. The
+ * number of instructions, the number of distinct entities, the mix of the
+ * currencies and the spread of the settlement dates could be controlled, so
+ * that the benchmarks could be run for the shape of the production feed.
+ *
+ * The currency mix is given as the currency codes with their weight, eg:
+ * <code>SGD:40,AED:20,EUR:30,SAR:10</code>. The instructions are generated
+ * from a fixed seed, so each run of the benchmarks reads the same data.
+ *
+ * @author prejith.devarajan
+ *
+ */
+public class InstructionGenerator {
+
+	private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern(
+			DailyTradeReportingConstants.INSTRUCTIONS_DATE_FORMAT, Locale.ENGLISH);
+
+	// The first instruction date of the generated instructions
+	private static final LocalDate FIRST_DATE = LocalDate.of(2017, 1, 2);
+
+	private final int entities;
+
+	private final int dateSpread;
+
+	private final long seed;
+
+	// The currency for each weight unit of the currency mix
+	private final String[] currencyWeights;
+
+	/**
+	 * @param entities
+	 *            the number of distinct entities
+	 * @param currencyMix
+	 *            the currency codes with their weight
+	 * @param dateSpread
+	 *            the number of days over which the instruction dates spread
+	 * @param seed
+	 *            the seed of the random instructions
+	 */
+	public InstructionGenerator(final int entities, final String currencyMix, final int dateSpread, final long seed) {
+		this.entities = entities;
+		this.dateSpread = dateSpread;
+		this.seed = seed;
+
+		final List<String> weights = new ArrayList<>();
+		for (String currency : currencyMix.split(",")) {
+			final String[] currencyWeight = currency.trim().split(":");
+			final int weight = currencyWeight.length > 1 ? Integer.parseInt(currencyWeight[1]) : 1;
+			for (int i = 0; i < weight; i++) {
+				weights.add(currencyWeight[0]);
+			}
+		}
+		this.currencyWeights = weights.toArray(new String[weights.size()]);
+	}
+
+	/**
+	 * @param rows
+	 *            the number of instructions
+	 * @return the generated instructions
+	 */
+	public List<Instruction> generate(final int rows) {
+		final List<Instruction> instructions = new ArrayList<>(rows);
+		final Random random = new Random(seed);
+
+		for (int row = 0; row < rows; row++) {
+			final LocalDate instructionDate = FIRST_DATE.plusDays(random.nextInt(dateSpread));
+			instructions.add(new Instruction("Entity" + random.nextInt(entities),
+					random.nextBoolean() ? TradeTxn.BUY : TradeTxn.SELL,
+					BigDecimal.valueOf(random.nextInt(200) + 1, 2),
+					currencyWeights[random.nextInt(currencyWeights.length)],
+					instructionDate,
+					instructionDate.plusDays(1 + random.nextInt(3)),
+					random.nextInt(1000) + 1,
+					// the trade amount is printed with the scale of 3
+					BigDecimal.valueOf(random.nextInt(50000) + 1, 1)));
+		}
+		return instructions;
+	}
+
+	/**
+	 * Writes the generated instructions to a data feed file in the CSV format
+	 * of the instructions.
+	 *
+	 * @param feedPath
+	 *            the path of the data feed file
+	 * @param rows
+	 *            the number of instructions
+	 * @throws IOException
+	 */
+	public void writeFeed(final Path feedPath, final int rows) throws IOException {
+		try (BufferedWriter writer = Files.newBufferedWriter(feedPath, StandardCharsets.UTF_8)) {
+			for (Instruction instruction : generate(rows)) {
+				writer.append(instruction.getEntity()).append(',')
+					.append(instruction.getTradeTxn() == TradeTxn.BUY ? "B" : "S").append(',')
+					.append(instruction.getAgreedFx().toPlainString()).append(',')
+					.append(instruction.getCurrency()).append(',')
+					.append(instruction.getInstructionDate().format(DATE_FORMATTER)).append(',')
+					.append(instruction.getSettlementDate().format(DATE_FORMATTER)).append(',')
+					.append(String.valueOf(instruction.getUnits())).append(',')
+					.append(instruction.getPricePerUnit().toPlainString()).append('\n');
+			}
+		}
+	}
+}
@@ -0,0 +1,50 @@
+package com.company.report.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.company.report.utils.DailyTradeReportingConstants;
+import com.company.report.utils.InstructionsCSVReader;
+
+/**
+ * The benchmark for parsing the data feed file into the instructions, for
+ * each reader of the data feed.
+ *
+ * @author prejith.devarajan
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ParsingBenchmark {
+
+	@Param({ DailyTradeReportingConstants.INSTRUCTIONS_READER_MAPPED,
+			DailyTradeReportingConstants.INSTRUCTIONS_READER_OPENCSV })
+	public String reader;
+
+	@Setup
+	public void chooseReader(final FeedState feed) {
+		System.setProperty(DailyTradeReportingConstants.INSTRUCTIONS_FILE_PROPERTY, feed.feedPath.toString());
+		System.setProperty(DailyTradeReportingConstants.INSTRUCTIONS_READER_PROPERTY, reader);
+	}
+
+	@Benchmark
+	public void readInstructions(final Blackhole blackhole) throws Exception {
+		InstructionsCSVReader.readInstructions(blackhole::consume);
+	}
+}
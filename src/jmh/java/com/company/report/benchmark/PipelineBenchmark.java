@@ -0,0 +1,57 @@
+package com.company.report.benchmark;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.company.report.ReportFactory;
+import com.company.report.bo.DailyReportBO;
+import com.company.report.entity.TradeReport;
+import com.company.report.handler.IReport;
+import com.company.report.utils.EpochDayMap;
+import com.company.report.utils.MappedInstructionsReader;
+
+/**
+ * The end to end benchmark of the report generation, from the data feed file
+ * to the rendered reports of all the settlement dates.
+ *
+ * @author prejith.devarajan
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PipelineBenchmark {
+
+	private final DailyReportBO reportBO = ReportFactory.getInstance().newDailyReportBO();
+
+	@Benchmark
+	public EpochDayMap<Map<TradeReport, IReport>> generateDailyReports(final FeedState feed) throws IOException {
+		final EpochDayMap<Map<TradeReport, IReport>> tradingReports = new EpochDayMap<>();
+		new MappedInstructionsReader(feed.feedPath).read(instruction -> reportBO.generateReport(tradingReports,
+				instruction));
+		return tradingReports;
+	}
+
+	@Benchmark
+	public int generateAndPrintDailyReports(final FeedState feed) throws IOException {
+		final StringBuilder out = new StringBuilder();
+		for (Map<TradeReport, IReport> dailyReport : generateDailyReports(feed).values()) {
+			reportBO.printDailyReports(dailyReport, out);
+		}
+		return out.length();
+	}
+}
@@ -0,0 +1,63 @@
+package com.company.report.benchmark;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.company.report.utils.CommonUtils;
+
+/**
+ * The benchmark for sorting the trade amounts of the entities to the ranking.
+ *
+ * @author prejith.devarajan
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RankingBenchmark {
+
+	@Param({ "1000", "100000" })
+	public int entities;
+
+	@Param("10")
+	public int top;
+
+	private Map<String, BigDecimal> entityAmounts;
+
+	@Setup
+	public void generateAmounts() {
+		final Random random = new Random(42);
+		entityAmounts = new HashMap<>();
+		for (int entity = 0; entity < entities; entity++) {
+			entityAmounts.put("Entity" + entity, BigDecimal.valueOf(random.nextInt(100000000), 3));
+		}
+	}
+
+	@Benchmark
+	public Map<String, BigDecimal> sortMapByValue() {
+		return CommonUtils.sortMapByValue(entityAmounts);
+	}
+
+	@Benchmark
+	public Map<String, BigDecimal> topByValue() {
+		return CommonUtils.topByValue(entityAmounts, top);
+	}
+}
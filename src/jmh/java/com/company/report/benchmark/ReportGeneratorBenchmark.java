@@ -0,0 +1,63 @@
+package com.company.report.benchmark;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.company.report.entity.Instruction;
+import com.company.report.entity.TradeReport;
+import com.company.report.handler.IReport;
+import com.company.report.handler.IReportGenerator;
+
+/**
+ * The benchmark for each report generator, all the instructions of the feed
+ * are added to the report of a single date.
+ *
+ * @author prejith.devarajan
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ReportGeneratorBenchmark {
+
+	@Param({ "IncomingAmountReportGenerator", "OutgoingAmountReportGenerator",
+			"IncomingRankingReportGenerator", "OutgoingRankingReportGenerator" })
+	public String generator;
+
+	private IReportGenerator reportGenerator;
+
+	private List<Instruction> instructions;
+
+	@Setup
+	public void createGenerator(final FeedState feed) throws ReflectiveOperationException {
+		reportGenerator = (IReportGenerator) Class.forName("com.company.report.handler.impl." + generator)
+				.newInstance();
+		instructions = feed.instructions;
+	}
+
+	@Benchmark
+	public Map<TradeReport, IReport> generateReport() {
+		final Map<TradeReport, IReport> tradeReport = new EnumMap<>(TradeReport.class);
+		for (Instruction instruction : instructions) {
+			reportGenerator.generateReport(tradeReport, instruction);
+		}
+		return tradeReport;
+	}
+}
@@ -0,0 +1,64 @@
+package com.company.report.benchmark;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.company.report.ReportFactory;
+import com.company.report.bo.SettlementDateBO;
+import com.company.report.entity.Instruction;
+
+/**
+ * The benchmark for resolving the actual settlement date of the instructions
+ * based on the business days of their currency.
+ *
+ * @author prejith.devarajan
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SettlementBenchmark {
+
+	private final SettlementDateBO settlementDateBO = ReportFactory.getInstance().newSettlementDateBO();
+
+	private List<Instruction> instructions;
+
+	// The settlement dates as given in the feed, the resolution changes the instructions
+	private LocalDate[] settlementDates;
+
+	@Setup
+	public void rememberSettlementDates(final FeedState feed) {
+		instructions = feed.instructions;
+		settlementDates = new LocalDate[instructions.size()];
+		for (int i = 0; i < settlementDates.length; i++) {
+			settlementDates[i] = instructions.get(i).getSettlementDate();
+		}
+	}
+
+	@Benchmark
+	public LocalDate calculateSettlementDates() {
+		LocalDate last = null;
+		for (int i = 0; i < settlementDates.length; i++) {
+			final Instruction instruction = instructions.get(i);
+			instruction.setSettlementDate(settlementDates[i]);
+			settlementDateBO.calculateSettlementDate(instruction);
+			last = instruction.getSettlementDate();
+		}
+		return last;
+	}
+}
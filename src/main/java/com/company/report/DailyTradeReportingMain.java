@@ -1,14 +1,35 @@
 package com.company.report;
 
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.time.LocalDate;
-import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 import java.util.Map;
+import java.util.Map.Entry;
 
 import com.company.report.bo.DailyReportBO;
+import com.company.report.entity.InstructionStore;
 import com.company.report.entity.TradeReport;
 import com.company.report.handler.IReport;
+import com.company.report.handler.IReportExporter;
+import com.company.report.utils.AsyncReportWriter;
 import com.company.report.utils.DailyTradeReportingConstants;
+import com.company.report.utils.EpochDayMap;
+import com.company.report.utils.InstructionSnapshot;
 import com.company.report.utils.InstructionsCSVReader;
+import com.company.report.utils.ReportMetrics;
+import com.company.report.utils.ReportMetrics.Stage;
 
 /**
  * The main class for the Daily Trade Reporting Engine. The class will invoke
@@ -34,6 +55,14 @@ public class DailyTradeReportingMain {
 
 	/**
 	 * @param args
+	 *            the optional arguments <code>--format=text|csv|jsonl</code>
+	 *            for the format of the reports and <code>--output=file</code>
+	 *            to write the reports to a file instead of the console,
+	 *            <code>--from=yyyy-MM-dd</code> and <code>--to=yyyy-MM-dd</code>
+	 *            to write the reports only for the settlement dates within
+	 *            the range, <code>--batch=directory|file,file,...</code> to
+	 *            generate the reports for all the feed files of a directory
+	 *            or of the list
 	 * @throws Exception
 	 */
 	public static void main(String[] args) throws Exception {
@@ -43,34 +72,189 @@ public class DailyTradeReportingMain {
 		 * report map holds the report for specific settlement dates.
 		 */
 
+		// the metrics could be watched through JMX while the reports are generated
+		if (Boolean.getBoolean(DailyTradeReportingConstants.METRICS_JMX_PROPERTY)) {
+			ReportMetrics.getInstance().register();
+		}
+
 		// invoke the factory to get instance of DailyReportBO
 		DailyReportBO reportBO = ReportFactory.getInstance().newDailyReportBO();
+		final IReportExporter exporter = ReportFactory.getInstance().newReportExporter(getArgument(args,
+				DailyTradeReportingConstants.REPORT_FORMAT_ARGUMENT, DailyTradeReportingConstants.REPORT_FORMAT_TEXT));
+		final String output = getArgument(args, DailyTradeReportingConstants.REPORT_OUTPUT_ARGUMENT, null);
+		final LocalDate fromDate = LocalDate.parse(getArgument(args,
+				DailyTradeReportingConstants.REPORT_FROM_ARGUMENT, LocalDate.MIN.toString()));
+		final LocalDate toDate = LocalDate.parse(getArgument(args,
+				DailyTradeReportingConstants.REPORT_TO_ARGUMENT, LocalDate.MAX.toString()));
 		/*
 		 * Read the instructions using the CSV reader utility and invoke the
 		 * business class which contains the implementation logic to generate
-		 * the daily reports.
+		 * the daily reports. Each instruction is pushed to the reports as soon
+		 * as it is read, so the instructions are never held in memory.
 		 */
-		final Map<LocalDate, Map<TradeReport, IReport>> tradingReports = reportBO
-				.generateDailyReports(InstructionsCSVReader.readInstructions());
+		final Path feedPath = InstructionsCSVReader.getFeedPath();
+		final int workers = Integer.getInteger(DailyTradeReportingConstants.INGEST_WORKERS_PROPERTY,
+				Runtime.getRuntime().availableProcessors());
 
-		/*
-		 * Display the reports in the console
-		 */
-		StringBuilder reportBuilder = new StringBuilder();
-		reportBuilder.append("                DAILY TRADE REPORTING ENGINE              \n")
-					 .append("---------------------------------------------------------\n");
-
-		// Iterate through the report date and print report for specific date
-		tradingReports.forEach((key, value) -> {
-			reportBuilder.append("\nDATE: ")
-						 .append(key.format(DateTimeFormatter.ofPattern(
-								 DailyTradeReportingConstants.INSTRUCTIONS_DATE_FORMAT)))
-						 .append("\n------------------\n")
-						 // print various reports for the settlement date
-						 .append(reportBO.printDailyReports(value));
-		});
-		reportBuilder.append("---------------------------------------------------------");
-
-		System.out.println(reportBuilder.toString());
+		final Long followInterval = Long.getLong(DailyTradeReportingConstants.FOLLOW_INTERVAL_PROPERTY);
+		if (followInterval != null && feedPath != null) {
+			// the reports are printed again each time new instructions are appended to the feed
+			reportBO.followDailyReports(feedPath, followInterval, reports -> {
+				try {
+					writeReports(exporter, output, reports.subMap(fromDate, toDate));
+				} catch (IOException e) {
+					throw new UncheckedIOException(e);
+				}
+			});
+			return;
+		}
+
+		final EpochDayMap<Map<TradeReport, IReport>> tradingReports;
+		final String snapshot = System.getProperty(DailyTradeReportingConstants.INSTRUCTIONS_SNAPSHOT_PROPERTY);
+		final String checkpoint = System.getProperty(DailyTradeReportingConstants.CHECKPOINT_FILE_PROPERTY);
+		final String batch = getArgument(args, DailyTradeReportingConstants.REPORT_BATCH_ARGUMENT, null);
+
+		if (batch != null) {
+			// the feeds of several days are read together, partitioned by the settlement date
+			tradingReports = reportBO.generateBatchReports(getBatchFeedPaths(batch), workers);
+		} else if (checkpoint != null && feedPath != null) {
+			// the reports are resumed from the last checkpoint and checkpointed while the feed is read
+			if (!InstructionsCSVReader.isMappedReader()) {
+				System.err.println("The checkpoints need the position in the data feed, the feed is read with the "
+						+ "memory mapped reader instead of the reader of the system property "
+						+ DailyTradeReportingConstants.INSTRUCTIONS_READER_PROPERTY);
+			}
+			tradingReports = reportBO.generateDailyReports(feedPath, Paths.get(checkpoint),
+					Integer.getInteger(DailyTradeReportingConstants.CHECKPOINT_INTERVAL_PROPERTY,
+							DailyTradeReportingConstants.CHECKPOINT_INTERVAL_DEFAULT));
+		} else if (snapshot != null) {
+			// the snapshot is loaded without parsing, or written again from the feed once the feed changes
+			final Path snapshotPath = Paths.get(snapshot);
+			tradingReports = reportBO.generateDailyReports(InstructionSnapshot.isCurrent(snapshotPath, feedPath)
+					? InstructionSnapshot.read(snapshotPath)
+					: InstructionsCSVReader.writeSnapshot(snapshotPath));
+		} else if (Boolean.getBoolean(DailyTradeReportingConstants.INSTRUCTIONS_COLUMNAR_PROPERTY)) {
+			// the instructions are held in a columnar store, which could be scanned again for other reports
+			final InstructionStore instructions = new InstructionStore();
+			InstructionsCSVReader.readInstructions(instructions::add);
+			instructions.trimToSize();
+			tradingReports = reportBO.generateDailyReports(instructions);
+		} else if (feedPath != null && workers > 1 && InstructionsCSVReader.isMappedReader()
+				&& (Boolean.getBoolean(DailyTradeReportingConstants.INGEST_CONCURRENT_PROPERTY)
+						|| reportBO.isMergeable())) {
+			// a feed file on the disk is split and read by several workers, whose reports are merged
+			// unless the workers add to the concurrent reports
+			tradingReports = reportBO.generateDailyReports(feedPath, workers);
+		} else {
+			final EpochDayMap<Map<TradeReport, IReport>> dailyReports = new EpochDayMap<>();
+			InstructionsCSVReader.readInstructions(instruction -> reportBO.generateReport(dailyReports, instruction));
+			tradingReports = dailyReports;
+		}
+
+		// the reports are written in the order of the settlement dates, only for the dates selected
+		writeReports(exporter, output, tradingReports.subMap(fromDate, toDate));
+
+		if (Boolean.getBoolean(DailyTradeReportingConstants.METRICS_PROPERTY)) {
+			writeMetrics();
+		}
+	}
+
+	/*
+	 * Write the reports to the console or to the output file in the format of
+	 * the exporter. The reports of each date are written as they are rendered,
+	 * on a separate writer thread if the system property report.output.async
+	 * is set.
+	 *
+	 * The reports are written once all the instructions are read - the feed is
+	 * not ordered by the settlement date, so the report of a date is final only
+	 * at the end of the feed. The writer thread overlaps the rendering of the
+	 * reports with the writes to the console, not with the aggregation.
+	 */
+	private static void writeReports(final IReportExporter exporter, final String output,
+			final Map<LocalDate, Map<TradeReport, IReport>> tradingReports) throws IOException {
+		final Writer sink = output == null
+				? new OutputStreamWriter(System.out, Charset.defaultCharset())
+				: Files.newBufferedWriter(Paths.get(output), StandardCharsets.UTF_8);
+		final Writer reportWriter = Boolean.getBoolean(DailyTradeReportingConstants.OUTPUT_ASYNC_PROPERTY)
+				? new AsyncReportWriter(sink)
+				: new BufferedWriter(sink, 64 * 1024);
+
+		exporter.exportHeader(reportWriter);
+		// Iterate through the report date and export the reports for specific date
+		for (Entry<LocalDate, Map<TradeReport, IReport>> dailyReport : tradingReports.entrySet()) {
+			final long start = ReportMetrics.start();
+			exporter.exportDailyReports(dailyReport.getKey(), dailyReport.getValue(), reportWriter);
+			ReportMetrics.record(Stage.PRINTING, start);
+		}
+		exporter.exportFooter(reportWriter);
+
+		// the console is flushed, but it is not closed
+		if (reportWriter instanceof AsyncReportWriter) {
+			reportWriter.close();
+		} else {
+			reportWriter.flush();
+		}
+		if (output != null) {
+			sink.close();
+		}
+	}
+
+	/*
+	 * Write the summary of the metrics to the metrics file or to the standard
+	 * error, so that the reports written to the console are not mixed with
+	 * the summary.
+	 */
+	private static void writeMetrics() throws IOException {
+		final String metricsFile = System.getProperty(DailyTradeReportingConstants.METRICS_FILE_PROPERTY);
+		if (metricsFile == null) {
+			ReportMetrics.getInstance().writeSummary(System.err);
+			return;
+		}
+
+		try (Writer metricsWriter = Files.newBufferedWriter(Paths.get(metricsFile), StandardCharsets.UTF_8)) {
+			ReportMetrics.getInstance().writeSummary(metricsWriter);
+		}
+	}
+
+	/*
+	 * Returns the feed files of a batch run - the regular files of the
+	 * directory which match the glob of the system property
+	 * report.batch.glob (*.csv by default) in the order of their names, or the
+	 * files of the comma separated list. The other files in the directory, eg:
+	 * a snapshot or a checkpoint, are not read as feeds.
+	 */
+	private static List<Path> getBatchFeedPaths(final String batch) throws IOException {
+		final Path batchPath = Paths.get(batch);
+		if (Files.isDirectory(batchPath)) {
+			final List<Path> feedPaths = new ArrayList<>();
+			try (DirectoryStream<Path> files = Files.newDirectoryStream(batchPath, System.getProperty(
+					DailyTradeReportingConstants.BATCH_GLOB_PROPERTY, DailyTradeReportingConstants.BATCH_GLOB_DEFAULT))) {
+				for (Path file : files) {
+					if (Files.isRegularFile(file)) {
+						feedPaths.add(file);
+					}
+				}
+			}
+			Collections.sort(feedPaths);
+			return feedPaths;
+		}
+
+		final List<Path> feedPaths = new ArrayList<>();
+		for (String feedFile : batch.split(",")) {
+			feedPaths.add(Paths.get(feedFile.trim()));
+		}
+		return feedPaths;
+	}
+
+	/*
+	 * Returns the value of the command line argument with the given prefix
+	 */
+	private static String getArgument(final String[] args, final String prefix, final String defaultValue) {
+		for (String arg : args) {
+			if (arg.startsWith(prefix)) {
+				return arg.substring(prefix.length());
+			}
+		}
+		return defaultValue;
 	}
 }
@@ -1,10 +1,29 @@
 package com.company.report;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.ServiceLoader;
+
 import com.company.report.bo.DailyReportBO;
 import com.company.report.bo.SettlementDateBO;
+import com.company.report.handler.IReportExporter;
+import com.company.report.handler.IReportGenerator;
+import com.company.report.handler.impl.CSVReportExporter;
+import com.company.report.handler.impl.FusedReportGenerator;
+import com.company.report.handler.impl.JSONLinesReportExporter;
+import com.company.report.handler.impl.TextReportExporter;
 import com.company.report.settlement.IBusinessDays;
+import com.company.report.settlement.impl.BusinessCalendars;
+import com.company.report.settlement.impl.CachedBusinessDays;
 import com.company.report.settlement.impl.MiddleEastBusinessDays;
 import com.company.report.settlement.impl.NormalBusinessDays;
+import com.company.report.utils.BusinessCalendarReader;
+import com.company.report.utils.DailyTradeReportingConstants;
 
 /**
  * The class uses factory methods to deal with the problem of creating objects
@@ -18,7 +37,21 @@ import com.company.report.settlement.impl.NormalBusinessDays;
  */
 public class ReportFactory {
 
-	private static ReportFactory instance = null;
+	private static final ReportFactory instance = new ReportFactory();
+
+	/*
+	 * The business days calendars for the currencies. The calendars remember
+	 * the actual settlement date for the dates within the configured horizon.
+	 * The instructions cluster on a few settlement dates, so most of the dates
+	 * are a single array read.
+	 */
+	private final BusinessCalendars businessCalendars = newBusinessCalendars();
+
+	/*
+	 * The report generators registered in the service provider configuration
+	 * file, loaded once in the order of the file.
+	 */
+	private final IReportGenerator[] reportGenerators = loadReportGenerators();
 
 	/**
 	 * The method returns the singleton instance for the ReportFactory class
@@ -26,9 +59,6 @@ public class ReportFactory {
 	 * @return the instance of ReportFactory
 	 */
 	public static ReportFactory getInstance() {
-		if (instance == null) {
-			instance = new ReportFactory();
-		}
 		return instance;
 	}
 
@@ -54,27 +84,144 @@ public class ReportFactory {
 		return new SettlementDateBO();
 	}
 
+	/**
+	 * The method constructs the exporter for the format of the reports. The
+	 * method will not expose the exact class of the object that will be
+	 * created.
+	 *
+	 * @param format
+	 *            the format of the reports - text, csv or jsonl
+	 * @return the instance of IReportExporter
+	 */
+	public IReportExporter newReportExporter(final String format) {
+		switch (format) {
+		case DailyTradeReportingConstants.REPORT_FORMAT_TEXT:
+			return new TextReportExporter();
+		case DailyTradeReportingConstants.REPORT_FORMAT_CSV:
+			return new CSVReportExporter();
+		case DailyTradeReportingConstants.REPORT_FORMAT_JSONL:
+			return new JSONLinesReportExporter();
+		default:
+			throw new IllegalArgumentException("Unknown report format: " + format);
+		}
+	}
+
+	/**
+	 * Returns the report generators registered in the service provider
+	 * configuration file
+	 * <code>META-INF/services/com.company.report.handler.IReportGenerator</code>.
+	 * A new report is added by listing its generator in the file, the
+	 * generators are instantiated once and invoked in the order of the file.
+	 *
+	 * If all the four amount and ranking report generators are registered,
+	 * they are replaced by the <code>FusedReportGenerator</code>, which
+	 * generates the four reports in a single pass, unless the system property
+	 * <code>report.generators.fused</code> is set to false.
+	 *
+	 * The returned array is a copy, so the registry could not be changed by
+	 * the caller.
+	 *
+	 * @return the report generators
+	 */
+	public IReportGenerator[] getReportGenerators() {
+		return reportGenerators.clone();
+	}
+
 	/**
 	 * Identifies the implementation class for identifying the business days
 	 * based on currency. Depending on the currency of each instruction the
 	 * settlement date may change.
 	 *
-	 * Middle East region will have different set of business days and we
-	 * identify if the currency is AED or SAR
-	 *
-	 * For all other currencies the business days identification logic resides
-	 * in the NormalBusinessDays
+	 * The calendar for each currency is configured in the business calendar
+	 * file - Middle East region will have different set of business days for
+	 * the currency AED or SAR. For all other currencies the default calendar
+	 * is used.
 	 *
 	 * @param currency
 	 * @return the implementation class for the business days
 	 */
 	public IBusinessDays getBusinessDays(final String currency) {
-		if ("AED".equalsIgnoreCase(currency) || "SAR".equalsIgnoreCase(currency)) {
-			// check if currency is AED or SAR for Middle East region
-			return MiddleEastBusinessDays.getInstance();
-		} else {
-			// for all other currencies
-			return NormalBusinessDays.getInstance();
+		return businessCalendars.getBusinessDays(currency);
+	}
+
+	/**
+	 * Identifies the implementation class for identifying the business days
+	 * based on the identifier of the currency in the
+	 * <code>CurrencyRegistry</code>. The calendar is looked up with an array
+	 * index instead of comparing the currency codes.
+	 *
+	 * @param currencyId
+	 * @return the implementation class for the business days
+	 */
+	public IBusinessDays getBusinessDays(final int currencyId) {
+		return businessCalendars.getBusinessDays(currencyId);
+	}
+
+	/**
+	 * Loads the business days calendars from the business calendar file. If
+	 * the file is not available, the Middle East region calendar is used for
+	 * the currency AED or SAR and the NormalBusinessDays for all other
+	 * currencies.
+	 *
+	 * @return the business days calendars
+	 */
+	private static BusinessCalendars newBusinessCalendars() {
+		if (!BusinessCalendarReader.hasCalendars()) {
+			final Map<String, IBusinessDays> calendars = new HashMap<>();
+			calendars.put("NORMAL", newCachedBusinessDays(NormalBusinessDays.getInstance()));
+			calendars.put("MIDDLE_EAST", newCachedBusinessDays(MiddleEastBusinessDays.getInstance()));
+
+			final Map<String, String> currencyCalendars = new HashMap<>();
+			currencyCalendars.put("AED", "MIDDLE_EAST");
+			currencyCalendars.put("SAR", "MIDDLE_EAST");
+			return new BusinessCalendars(calendars, currencyCalendars, "NORMAL");
+		}
+
+		try {
+			return BusinessCalendarReader.readCalendars(ReportFactory::newCachedBusinessDays);
+		} catch (IOException e) {
+			throw new UncheckedIOException("Failed to read the business calendars", e);
+		}
+	}
+
+	/**
+	 * Loads the report generators using the ServiceLoader, which reads the
+	 * provider configuration files instead of scanning the classpath.
+	 *
+	 * @return the report generators in the order of the configuration file
+	 */
+	private static IReportGenerator[] loadReportGenerators() {
+		final List<IReportGenerator> generators = new ArrayList<>();
+		for (IReportGenerator generator : ServiceLoader.load(IReportGenerator.class,
+				ReportFactory.class.getClassLoader())) {
+			generators.add(generator);
+		}
+
+		if (generators.isEmpty()) {
+			throw new IllegalStateException("No report generator is registered for: " + IReportGenerator.class.getName());
+		}
+
+		if (Boolean.parseBoolean(System.getProperty(DailyTradeReportingConstants.GENERATORS_FUSED_PROPERTY,
+				DailyTradeReportingConstants.GENERATORS_FUSED_DEFAULT))) {
+			FusedReportGenerator.fuse(generators);
 		}
+		return generators.toArray(new IReportGenerator[generators.size()]);
+	}
+
+	/**
+	 * Wraps the business days to remember the actual settlement dates. The
+	 * horizon of the dates could be configured using the system properties.
+	 *
+	 * @param businessDays
+	 * @return the business days which remembers the actual settlement dates
+	 */
+	private static IBusinessDays newCachedBusinessDays(final IBusinessDays businessDays) {
+		final LocalDate from = LocalDate.parse(System.getProperty(
+				DailyTradeReportingConstants.SETTLEMENT_CACHE_FROM_PROPERTY,
+				DailyTradeReportingConstants.SETTLEMENT_CACHE_FROM_DEFAULT));
+		final int days = Integer.getInteger(DailyTradeReportingConstants.SETTLEMENT_CACHE_DAYS_PROPERTY,
+				DailyTradeReportingConstants.SETTLEMENT_CACHE_DAYS_DEFAULT);
+
+		return new CachedBusinessDays(businessDays, from, days);
 	}
 }
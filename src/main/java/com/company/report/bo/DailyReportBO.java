@@ -1,20 +1,40 @@
 package com.company.report.bo;
 
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.time.LocalDate;
-import java.util.HashMap;
-import java.util.HashSet;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
 
 import com.company.report.ReportFactory;
 import com.company.report.entity.Instruction;
+import com.company.report.entity.InstructionStore;
 import com.company.report.entity.TradeReport;
 import com.company.report.handler.IReport;
 import com.company.report.handler.IReportGenerator;
-import com.company.report.handler.impl.IncomingAmountReportGenerator;
-import com.company.report.handler.impl.IncomingRankingReportGenerator;
-import com.company.report.handler.impl.OutgoingAmountReportGenerator;
-import com.company.report.handler.impl.OutgoingRankingReportGenerator;
+import com.company.report.handler.impl.ReportCheckpoint;
+import com.company.report.utils.DailyTradeReportingConstants;
+import com.company.report.utils.EpochDayMap;
+import com.company.report.utils.MappedInstructionsReader;
+import com.company.report.utils.ReportMetrics;
+import com.company.report.utils.ReportMetrics.Stage;
 
 /**
  * The Business element for the daily report feature. The class defines business
@@ -27,6 +47,25 @@ import com.company.report.handler.impl.OutgoingRankingReportGenerator;
  */
 public class DailyReportBO {
 
+	// The number of instructions handed over to a partition worker at a time
+	private static final int BATCH_SIZE = 4096;
+
+	// The number of batches waiting for each partition worker
+	private static final int BATCH_QUEUE_CAPACITY = 16;
+
+	// The minimum size of a byte range of a feed file in the batch processing
+	private static final long BATCH_MIN_RANGE = 4L * 1024 * 1024;
+
+	/*
+	 * The report generators and the settlement date business object are
+	 * resolved once for the business object, so that the report generation
+	 * for each instruction does not create any object. The generators do not
+	 * hold any state and could be shared by the workers.
+	 */
+	private final IReportGenerator[] reportGenerators = ReportFactory.getInstance().getReportGenerators();
+
+	private final SettlementDateBO settlementDateBO = ReportFactory.getInstance().newSettlementDateBO();
+
 	/**
 	 * Generate the daily reports for the set of instructions. The method
 	 * iterates through the instructions and generate the report for specific
@@ -41,6 +80,11 @@ public class DailyReportBO {
 	 * The report map will have the report identifier (enum) as key and value
 	 * will be an interface which holds information based on each report type.
 	 *
+	 * The settlement dates are held in an <code>EpochDayMap</code> and the
+	 * reports for a date in an <code>EnumMap</code> indexed by the ordinal of
+	 * the report identifier, so the report generation for an instruction does
+	 * not hash or box any key.
+	 *
 	 * Eg: the resulting map structure
 	 * 	<map>
 	 * 		<Settlement Date> - <map>
@@ -69,31 +113,499 @@ public class DailyReportBO {
 	 *            The set of instructions for which report has to be generated
 	 * @return tradingReports The report map generated for the settlement date
 	 */
-	public Map<LocalDate, Map<TradeReport, IReport>> generateDailyReports(final Set<Instruction> instructions) {
-		Map<LocalDate, Map<TradeReport, IReport>> tradingReports = new HashMap<>();
+	public EpochDayMap<Map<TradeReport, IReport>> generateDailyReports(final Set<Instruction> instructions) {
+		EpochDayMap<Map<TradeReport, IReport>> tradingReports = new EpochDayMap<>();
 
-		instructions.forEach(instruction -> {
+		instructions.forEach(instruction -> generateReport(tradingReports, instruction));
+		return tradingReports;
+	}
 
+	/**
+	 * Generate the daily reports for the instructions in the columnar
+	 * instruction store. The rows of the store are scanned from the first to
+	 * the last, and the generators read the columns of each row without
+	 * constructing an <code>Instruction</code>. The store could be scanned
+	 * again to generate the reports without reading the data feed again.
+	 *
+	 * @param instructions
+	 *            The columnar store of the instructions for which report has
+	 *            to be generated
+	 * @return tradingReports The report map generated for the settlement date
+	 */
+	public EpochDayMap<Map<TradeReport, IReport>> generateDailyReports(final InstructionStore instructions) {
+		final EpochDayMap<Map<TradeReport, IReport>> tradingReports = new EpochDayMap<>();
+
+		for (int row = 0; row < instructions.size(); row++) {
 			// calculate the actual settlement date based on the business day
-			ReportFactory.getInstance().newSettlementDateBO().calculateSettlementDate(instruction);
+			settlementDateBO.calculateSettlementDate(instructions, row);
+
+			final long start = ReportMetrics.start();
+			final Map<TradeReport, IReport> dailyReport = tradingReports.computeIfAbsent(
+					instructions.getSettlementDay(row), epochDay -> new EnumMap<>(TradeReport.class));
+
+			for (IReportGenerator generator : reportGenerators) {
+				generator.generateReport(dailyReport, instructions, row);
+			}
+			ReportMetrics.record(Stage.AGGREGATION, start);
+		}
+		return tradingReports;
+	}
+
+	/**
+	 * Generate the daily reports for a single instruction. The settlement date
+	 * of the instruction is adjusted to the business day and the reports for
+	 * the identified settlement date are updated in the given report map.
+	 *
+	 * The method is the streaming counterpart of
+	 * <code>generateDailyReports</code>. The instructions can be pushed one by
+	 * one as they are read from the data feed, so that the instructions need
+	 * not be held in memory. The memory used by the report map depends only on
+	 * the number of settlement dates and entities.
+	 *
+	 * @param tradingReports
+	 *            The report map to be updated for the settlement date
+	 * @param instruction
+	 *            The instruction for which report has to be generated
+	 */
+	public void generateReport(final Map<LocalDate, Map<TradeReport, IReport>> tradingReports,
+			final Instruction instruction) {
+
+		// calculate the actual settlement date based on the business day
+		settlementDateBO.calculateSettlementDate(instruction);
+
+		final long start = ReportMetrics.start();
+		final LocalDate settlementDate = instruction.getSettlementDate();
+
+		Map<TradeReport, IReport> dailyReport = tradingReports.get(settlementDate);
+		// create a new daily report if the report for the settlement date is not already available
+		if( dailyReport == null) {
+			dailyReport =  new EnumMap<>(TradeReport.class);
+			tradingReports.put(settlementDate, dailyReport);
+		}
+
+		// generate reports for all available implementations of report
+		for(IReportGenerator generator : reportGenerators ){
+			generator.generateReport(dailyReport, instruction);
+		}
+		ReportMetrics.record(Stage.AGGREGATION, start);
+	}
+
+	/**
+	 * Generate the daily reports for a single instruction in a report map
+	 * keyed by the epoch day of the settlement date. The report map for the
+	 * settlement date is looked up with the primitive epoch day.
+	 *
+	 * @param tradingReports
+	 *            The report map to be updated for the settlement date
+	 * @param instruction
+	 *            The instruction for which report has to be generated
+	 */
+	public void generateReport(final EpochDayMap<Map<TradeReport, IReport>> tradingReports,
+			final Instruction instruction) {
+
+		// calculate the actual settlement date based on the business day
+		settlementDateBO.calculateSettlementDate(instruction);
+
+		addReport(tradingReports, instruction);
+	}
+
+	/**
+	 * Generate the daily reports for a single instruction in a report map
+	 * which is updated by several threads at the same time. The threads
+	 * submitting the instructions do not hold any global lock - the report
+	 * map for a new settlement date is added using
+	 * <code>computeIfAbsent</code>, with the thread safe reports of all the
+	 * generators, and the trade amounts are added to striped accumulators.
+	 *
+	 * The trade amounts are summed up exactly, so the final reports do not
+	 * depend on the order in which the threads submit the instructions.
+	 *
+	 * @param tradingReports
+	 *            The concurrent report map to be updated for the settlement date
+	 * @param instruction
+	 *            The instruction for which report has to be generated
+	 */
+	public void generateConcurrentReport(final ConcurrentMap<LocalDate, Map<TradeReport, IReport>> tradingReports,
+			final Instruction instruction) {
+
+		// calculate the actual settlement date based on the business day
+		settlementDateBO.calculateSettlementDate(instruction);
 
-			final LocalDate settlementDate = instruction.getSettlementDate();
+		final long start = ReportMetrics.start();
+		final LocalDate settlementDate = instruction.getSettlementDate();
 
-			Map<TradeReport, IReport> dailyReport = tradingReports.get(settlementDate);
-			// create a new daily report if the report for the settlement date is not already available
-			if( dailyReport == null) {
-				dailyReport =  new HashMap<>();
-				tradingReports.put(settlementDate, dailyReport);
+		Map<TradeReport, IReport> dailyReport = tradingReports.get(settlementDate);
+		if (dailyReport == null) {
+			dailyReport = tradingReports.computeIfAbsent(settlementDate, date -> newConcurrentDailyReport());
+		}
+
+		for (IReportGenerator generator : reportGenerators) {
+			generator.generateReport(dailyReport, instruction);
+		}
+		ReportMetrics.record(Stage.AGGREGATION, start);
+	}
+
+	/**
+	 * Generate the daily reports for the instructions in a data feed file
+	 * using several workers. The file is split into byte ranges aligned on the
+	 * line boundaries and each range is read by its own worker. Each worker
+	 * generates the reports for its range of instructions and the reports
+	 * of all workers are merged at the end.
+	 *
+	 * If the system property <code>report.ingest.concurrent</code> is set, the
+	 * workers add to the same concurrent report map instead, and all the
+	 * generators need to support the concurrent aggregation. Otherwise the
+	 * reports of all the generators need to be mergeable. Both are checked
+	 * before the data feed is read.
+	 *
+	 * @param feedPath
+	 *            The path of the data feed file
+	 * @param workers
+	 *            The number of workers to read the data feed file
+	 * @return tradingReports The report map generated for the settlement date
+	 * @throws IOException
+	 */
+	public EpochDayMap<Map<TradeReport, IReport>> generateDailyReports(final Path feedPath, final int workers)
+			throws IOException {
+		final boolean concurrent = Boolean.getBoolean(DailyTradeReportingConstants.INGEST_CONCURRENT_PROPERTY);
+		if (concurrent) {
+			checkConcurrent(reportGenerators);
+		} else {
+			checkMergeable(reportGenerators);
+		}
+
+		final long[] offsets = MappedInstructionsReader.split(feedPath, workers);
+		final ExecutorService executor = Executors.newFixedThreadPool(workers);
+		final ConcurrentMap<LocalDate, Map<TradeReport, IReport>> concurrentReports = new ConcurrentHashMap<>();
+
+		try {
+			final List<Future<Map<LocalDate, Map<TradeReport, IReport>>>> partials = new ArrayList<>();
+			for (int worker = 0; worker < workers; worker++) {
+				final long from = offsets[worker];
+				final long to = offsets[worker + 1];
+				// each worker generates the reports for its own range of the feed
+				partials.add(executor.submit(() -> {
+					if (concurrent) {
+						new MappedInstructionsReader(feedPath).read(from, to,
+								instruction -> generateConcurrentReport(concurrentReports, instruction));
+						return null;
+					}
+
+					final EpochDayMap<Map<TradeReport, IReport>> partial = new EpochDayMap<>();
+					new MappedInstructionsReader(feedPath).read(from, to,
+							instruction -> generateReport(partial, instruction));
+					return partial;
+				}));
 			}
 
-			// generate reports for all available implementations of report
-			for(IReportGenerator generator : getReportGenerators() ){
-				generator.generateReport(dailyReport, instruction);
+			final EpochDayMap<Map<TradeReport, IReport>> tradingReports = new EpochDayMap<>();
+			for (Future<Map<LocalDate, Map<TradeReport, IReport>>> partial : partials) {
+				if (partial.get() != null) {
+					mergeDailyReports(tradingReports, partial.get());
+				}
 			}
-		});
+			// the dates of the concurrent reports are put in order
+			tradingReports.putAll(concurrentReports);
+			return tradingReports;
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException("Interrupted while reading the data feed " + feedPath);
+		} catch (ExecutionException e) {
+			if (e.getCause() instanceof IOException) {
+				throw (IOException) e.getCause();
+			}
+			throw new IllegalStateException("Failed to read the data feed " + feedPath, e.getCause());
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	/**
+	 * Generate the daily reports for the instructions in several data feed
+	 * files, eg: the feeds of a month for the month end or a backfill run. The
+	 * instructions are partitioned by their settlement date, so that the
+	 * reports for a settlement date are generated by a single worker.
+	 *
+	 * Each feed file is split into byte ranges aligned on the line boundaries,
+	 * and the ranges of all the files are read by the reader threads. A reader
+	 * calculates the actual settlement date of each instruction and hands it
+	 * over, in batches, to the worker of the partition of the date - selected
+	 * by the epoch day of the date modulo the number of workers. Each worker
+	 * owns the report map of its partition, so the reports are updated
+	 * without any lock, and the report maps of the partitions have different
+	 * settlement dates, so they are put together without any merge.
+	 *
+	 * The feeds are read with the <code>MappedInstructionsReader</code>.
+	 *
+	 * @param feedPaths
+	 *            The paths of the data feed files
+	 * @param workers
+	 *            The number of readers and the number of partitions of the
+	 *            settlement dates
+	 * @return tradingReports The report map generated for the settlement date
+	 * @throws IOException
+	 */
+	public EpochDayMap<Map<TradeReport, IReport>> generateBatchReports(final List<Path> feedPaths,
+			final int workers) throws IOException {
+		final List<BlockingQueue<List<Instruction>>> partitions = new ArrayList<>(workers);
+		for (int partition = 0; partition < workers; partition++) {
+			partitions.add(new ArrayBlockingQueue<>(BATCH_QUEUE_CAPACITY));
+		}
+
+		final ExecutorService partitionWorkers = Executors.newFixedThreadPool(workers);
+		final ExecutorService readers = Executors.newFixedThreadPool(workers);
+		try {
+			final List<Future<EpochDayMap<Map<TradeReport, IReport>>>> partials = new ArrayList<>();
+			for (BlockingQueue<List<Instruction>> partition : partitions) {
+				partials.add(partitionWorkers.submit(() -> generatePartitionReports(partition)));
+			}
+
+			final List<Future<?>> reads = new ArrayList<>();
+			for (Path feedPath : feedPaths) {
+				// the large feeds are split, so the time is not bound by the largest feed
+				final int ranges = (int) Math.min(workers, Files.size(feedPath) / BATCH_MIN_RANGE + 1);
+				final long[] offsets = MappedInstructionsReader.split(feedPath, ranges);
+				for (int range = 0; range < ranges; range++) {
+					final long from = offsets[range];
+					final long to = offsets[range + 1];
+					reads.add(readers.submit(() -> {
+						readPartitioned(feedPath, from, to, partitions);
+						return null;
+					}));
+				}
+			}
+			for (Future<?> read : reads) {
+				read.get();
+			}
+
+			// the empty batch marks the end of the instructions for the partition
+			for (BlockingQueue<List<Instruction>> partition : partitions) {
+				partition.put(Collections.emptyList());
+			}
+
+			final EpochDayMap<Map<TradeReport, IReport>> tradingReports = new EpochDayMap<>();
+			for (Future<EpochDayMap<Map<TradeReport, IReport>>> partial : partials) {
+				tradingReports.putAll(partial.get());
+			}
+			return tradingReports;
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException("Interrupted while reading the data feeds " + feedPaths);
+		} catch (ExecutionException e) {
+			if (e.getCause() instanceof IOException) {
+				throw (IOException) e.getCause();
+			}
+			throw new IllegalStateException("Failed to read the data feeds " + feedPaths, e.getCause());
+		} finally {
+			readers.shutdownNow();
+			partitionWorkers.shutdownNow();
+		}
+	}
+
+	/**
+	 * Generate the daily reports for the data feed file with checkpoints. The
+	 * state of the reports is written to the checkpoint file along with the
+	 * position in the feed after every given number of instructions. If the
+	 * checkpoint file is already available, eg: the previous run failed, the
+	 * reports are restored from the checkpoint and only the rest of the feed
+	 * is read.
+	 *
+	 * The checkpoint file is deleted once the whole feed is read, so the next
+	 * run with the same checkpoint file starts from the beginning of its feed.
+	 * A checkpoint which was not written for the feed is rejected. Only the
+	 * reports of the built-in generators could be checkpointed.
+	 *
+	 * The position in the feed is only known to the
+	 * <code>MappedInstructionsReader</code>, so the feed is always read with it,
+	 * whichever reader is chosen by the system property
+	 * <code>report.instructions.reader</code>.
+	 *
+	 * @param feedPath
+	 *            The path of the data feed file
+	 * @param checkpointPath
+	 *            The path of the checkpoint file
+	 * @param checkpointInterval
+	 *            The number of instructions read between the checkpoints
+	 * @return tradingReports The report map generated for the settlement date
+	 * @throws IOException
+	 */
+	public EpochDayMap<Map<TradeReport, IReport>> generateDailyReports(final Path feedPath,
+			final Path checkpointPath, final int checkpointInterval) throws IOException {
+		ReportCheckpoint.checkSupported(reportGenerators);
+
+		final EpochDayMap<Map<TradeReport, IReport>> tradingReports;
+		final long from;
+
+		if (Files.exists(checkpointPath)) {
+			final ReportCheckpoint checkpoint = ReportCheckpoint.read(checkpointPath, feedPath);
+			tradingReports = checkpoint.getTradingReports();
+			from = checkpoint.getPosition();
+		} else {
+			tradingReports = new EpochDayMap<>();
+			from = 0;
+		}
+
+		final MappedInstructionsReader reader = new MappedInstructionsReader(feedPath);
+		final int[] instructions = new int[1];
+		try {
+			reader.read(from, Long.MAX_VALUE, instruction -> {
+				generateReport(tradingReports, instruction);
+				if (++instructions[0] == checkpointInterval) {
+					instructions[0] = 0;
+					// the position of the reader already covers the instruction
+					writeCheckpoint(checkpointPath, tradingReports, feedPath, reader.getPosition());
+				}
+			});
+		} catch (UncheckedIOException e) {
+			throw e.getCause();
+		}
+		// the feed is complete, nothing is left to resume
+		Files.deleteIfExists(checkpointPath);
 		return tradingReports;
 	}
 
+	/**
+	 * Follows the data feed file which is appended all day and keeps the daily
+	 * reports up to date. The size of the file is polled and only the complete
+	 * lines appended since the previous poll are read and added to the same
+	 * reports, so a refresh costs in proportion to the new instructions rather
+	 * than the whole file. A trailing line which is still written is read on a
+	 * later poll, once its line separator is appended.
+	 *
+	 * If the file becomes smaller than the part already read, eg: the feed is
+	 * rolled over for the next day, the reports are generated again from the
+	 * start of the file.
+	 *
+	 * The method returns once the thread is interrupted.
+	 *
+	 * @param feedPath
+	 *            The path of the data feed file
+	 * @param pollInterval
+	 *            The interval in milliseconds between the polls of the file
+	 * @param refresh
+	 *            The consumer for the reports after the new instructions are
+	 *            added to them
+	 * @throws IOException
+	 */
+	public void followDailyReports(final Path feedPath, final long pollInterval,
+			final Consumer<EpochDayMap<Map<TradeReport, IReport>>> refresh) throws IOException {
+		final MappedInstructionsReader reader = new MappedInstructionsReader(feedPath);
+		EpochDayMap<Map<TradeReport, IReport>> tradingReports = new EpochDayMap<>();
+		long position = 0;
+
+		while (!Thread.currentThread().isInterrupted()) {
+			final long size = Files.exists(feedPath) ? Files.size(feedPath) : 0;
+			if (size < position) {
+				tradingReports = new EpochDayMap<>();
+				position = 0;
+			}
+
+			if (size > position) {
+				final EpochDayMap<Map<TradeReport, IReport>> dailyReports = tradingReports;
+				final long appended = reader.readAppended(position,
+						instruction -> generateReport(dailyReports, instruction));
+				if (appended > position) {
+					position = appended;
+					refresh.accept(tradingReports);
+				}
+			}
+
+			try {
+				TimeUnit.MILLISECONDS.sleep(pollInterval);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		}
+	}
+
+	/**
+	 * Checks the reports of all the report generators could be merged, so the
+	 * reports generated by several workers could be combined.
+	 *
+	 * @return true if the reports of all the generators could be merged
+	 */
+	public boolean isMergeable() {
+		for (IReportGenerator generator : reportGenerators) {
+			if (!generator.isMergeable()) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Checks the reports of the generators could be merged. A run with a
+	 * generator whose reports could not be merged fails before the data feed
+	 * is read instead of at the end, when the reports of the workers are
+	 * merged.
+	 *
+	 * @param generators
+	 *            the report generators of the run
+	 */
+	public static void checkMergeable(final IReportGenerator[] generators) {
+		for (IReportGenerator generator : generators) {
+			if (!generator.isMergeable()) {
+				throw new IllegalStateException("Merge is not supported for the reports of generator: "
+						+ generator.getClass().getName() + ", the feed could only be read by a single worker");
+			}
+		}
+	}
+
+	/**
+	 * Checks the generators support the concurrent aggregation, ie: override
+	 * the method to add the thread safe report. A run with any other generator
+	 * fails before the data feed is read instead of at the first instruction.
+	 *
+	 * @param generators
+	 *            the report generators of the run
+	 */
+	public static void checkConcurrent(final IReportGenerator[] generators) {
+		for (IReportGenerator generator : generators) {
+			final boolean supported;
+			try {
+				supported = !generator.getClass().getMethod("addConcurrentReport", Map.class).isDefault();
+			} catch (NoSuchMethodException e) {
+				throw new IllegalStateException(e);
+			}
+			if (!supported) {
+				throw new IllegalStateException("Concurrent aggregation is not supported for generator: "
+						+ generator.getClass().getName() + ", unset the system property "
+						+ DailyTradeReportingConstants.INGEST_CONCURRENT_PROPERTY);
+			}
+		}
+	}
+
+	/**
+	 * Merges the reports generated for a part of the instructions into the
+	 * report map. The reports for a settlement date which is not already
+	 * available in the report map are taken over as is, otherwise the reports
+	 * of the same type are merged.
+	 *
+	 * @param tradingReports
+	 *            The report map to which the reports are merged
+	 * @param partialReports
+	 *            The reports generated for a part of the instructions
+	 */
+	public void mergeDailyReports(final Map<LocalDate, Map<TradeReport, IReport>> tradingReports,
+			final Map<LocalDate, Map<TradeReport, IReport>> partialReports) {
+		partialReports.forEach((settlementDate, partialReport) -> {
+			final Map<TradeReport, IReport> dailyReport = tradingReports.get(settlementDate);
+
+			if (dailyReport == null) {
+				tradingReports.put(settlementDate, partialReport);
+			} else {
+				partialReport.forEach((reportName, reportValue) -> {
+					final IReport report = dailyReport.get(reportName);
+					if (report == null) {
+						dailyReport.put(reportName, reportValue);
+					} else {
+						report.merge(reportValue);
+					}
+				});
+			}
+		});
+	}
+
 	/**
 	 * The method invokes the specific print method for each report type.
 	 *
@@ -113,25 +625,135 @@ public class DailyReportBO {
 	}
 
 	/**
-	 * The method constructs the list of all the report generators. The report
-	 * generator instances are created and added to the set which is used by
-	 * invoking methods to invoke the specific report generators. For any new
-	 * report implementation, a generator class needs to be added here.
+	 * Writes the reports for a settlement date to the output as each report
+	 * is constructed, instead of constructing the text of all the reports
+	 * first.
 	 *
-	 * Note: Identifying all implementations for the IReportGenerator interface
-	 * could also be done using any external library like spring framework or
-	 * reflections. Inorder to minimize the use of external libraries, the
-	 * reports for current requirements are hardcoded here.
+	 * @param reportData
+	 *            The reports for the settlement date
+	 * @param out
+	 *            The output for the text of the reports
+	 * @throws IOException
+	 */
+	public void printDailyReports(final Map<TradeReport, IReport> reportData, final Appendable out)
+			throws IOException {
+		for (IReport report : reportData.values()) {
+			report.printReport(out);
+		}
+	}
+
+	private static void writeCheckpoint(final Path checkpointPath,
+			final Map<LocalDate, Map<TradeReport, IReport>> tradingReports, final Path feedPath, final long position) {
+		try {
+			ReportCheckpoint.write(checkpointPath, tradingReports, feedPath, position);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	/*
+	 * Adds the instruction, with the actual settlement date already
+	 * calculated, to the reports for its settlement date.
+	 */
+	private void addReport(final EpochDayMap<Map<TradeReport, IReport>> tradingReports,
+			final Instruction instruction) {
+		final long start = ReportMetrics.start();
+		final Map<TradeReport, IReport> dailyReport = tradingReports.computeIfAbsent(
+				instruction.getSettlementDate().toEpochDay(), epochDay -> new EnumMap<>(TradeReport.class));
+
+		// generate reports for all available implementations of report
+		for(IReportGenerator generator : reportGenerators ){
+			generator.generateReport(dailyReport, instruction);
+		}
+		ReportMetrics.record(Stage.AGGREGATION, start);
+	}
+
+	/*
+	 * Reads a byte range of a feed file and hands over the instructions, in
+	 * batches, to the partitions of their settlement dates.
+	 */
+	private void readPartitioned(final Path feedPath, final long from, final long to,
+			final List<BlockingQueue<List<Instruction>>> partitions) throws IOException {
+		final List<List<Instruction>> batches = new ArrayList<>(partitions.size());
+		for (int partition = 0; partition < partitions.size(); partition++) {
+			batches.add(new ArrayList<>(BATCH_SIZE));
+		}
+
+		try {
+			new MappedInstructionsReader(feedPath).read(from, to, instruction -> {
+				// calculate the actual settlement date based on the business day
+				settlementDateBO.calculateSettlementDate(instruction);
+
+				final int partition = (int) Math.floorMod(instruction.getSettlementDate().toEpochDay(),
+						(long) partitions.size());
+				final List<Instruction> batch = batches.get(partition);
+				batch.add(instruction);
+				if (batch.size() == BATCH_SIZE) {
+					putBatch(partitions.get(partition), batch);
+					batches.set(partition, new ArrayList<>(BATCH_SIZE));
+				}
+			});
+		} catch (UncheckedIOException e) {
+			throw e.getCause();
+		}
+
+		for (int partition = 0; partition < partitions.size(); partition++) {
+			if (!batches.get(partition).isEmpty()) {
+				putBatch(partitions.get(partition), batches.get(partition));
+			}
+		}
+	}
+
+	private static void putBatch(final BlockingQueue<List<Instruction>> partition, final List<Instruction> batch) {
+		try {
+			partition.put(batch);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new UncheckedIOException(new InterruptedIOException("Interrupted while handing over the instructions"));
+		}
+	}
+
+	/*
+	 * Generates the reports for the batches of a partition until the empty
+	 * batch is taken. The batches are still taken after a failure, so that
+	 * the readers are not blocked on the partition.
+	 */
+	private EpochDayMap<Map<TradeReport, IReport>> generatePartitionReports(
+			final BlockingQueue<List<Instruction>> partition) throws InterruptedException {
+		final EpochDayMap<Map<TradeReport, IReport>> partitionReports = new EpochDayMap<>();
+		RuntimeException failure = null;
+
+		for (List<Instruction> batch = partition.take(); !batch.isEmpty(); batch = partition.take()) {
+			if (failure == null) {
+				try {
+					for (Instruction instruction : batch) {
+						addReport(partitionReports, instruction);
+					}
+				} catch (RuntimeException e) {
+					failure = e;
+				}
+			}
+		}
+
+		if (failure != null) {
+			throw failure;
+		}
+		return partitionReports;
+	}
+
+	/**
+	 * Constructs the report map for a settlement date with the thread safe
+	 * report of each generator.
 	 *
-	 * @return generators
+	 * @return the report map for the concurrent aggregation
 	 */
-	private static Set<IReportGenerator> getReportGenerators() {
-		Set<IReportGenerator> generators = new HashSet<>();
-		generators.add(new OutgoingRankingReportGenerator());
-		generators.add(new IncomingRankingReportGenerator());
-		generators.add(new OutgoingAmountReportGenerator());
-		generators.add(new IncomingAmountReportGenerator());
+	private Map<TradeReport, IReport> newConcurrentDailyReport() {
+		// the reports are only read once the report map is published
+		final Map<TradeReport, IReport> dailyReport = new EnumMap<>(TradeReport.class);
 
-		return generators;
+		for (IReportGenerator generator : reportGenerators) {
+			generator.addConcurrentReport(dailyReport);
+		}
+		return dailyReport;
 	}
 }
@@ -4,7 +4,10 @@ import java.time.LocalDate;
 
 import com.company.report.ReportFactory;
 import com.company.report.entity.Instruction;
+import com.company.report.entity.InstructionStore;
 import com.company.report.settlement.IBusinessDays;
+import com.company.report.utils.ReportMetrics;
+import com.company.report.utils.ReportMetrics.Stage;
 
 /**
  * The business element which defines the logic to calculate the settlement date
@@ -29,12 +32,33 @@ public class SettlementDateBO {
 	 * @param instruction
 	 */
 	public void calculateSettlementDate(final Instruction instruction) {
+		final long start = ReportMetrics.start();
 
 		// identify the implementation logic for settlement date based on currency
-		final IBusinessDays businessDays = ReportFactory.getInstance().getBusinessDays(instruction.getCurrency());
+		final IBusinessDays businessDays = ReportFactory.getInstance().getBusinessDays(instruction.getCurrencyId());
 
 		// get the actual settlement date if the given date falls on a weekend
 		final LocalDate actualSettlementDate = businessDays.findActualSettlementDate(instruction.getSettlementDate());
 		instruction.setSettlementDate(actualSettlementDate);
+		ReportMetrics.record(Stage.SETTLEMENT, start);
+	}
+
+	/**
+	 * Calculates the settlement date for the instruction in a row of the
+	 * columnar instruction store. The settlement date of the row is changed
+	 * to the actual settlement date.
+	 *
+	 * @param instructions
+	 * @param row
+	 */
+	public void calculateSettlementDate(final InstructionStore instructions, final int row) {
+		final long start = ReportMetrics.start();
+
+		// identify the implementation logic for settlement date based on currency
+		final IBusinessDays businessDays = ReportFactory.getInstance().getBusinessDays(instructions.getCurrencyId(row));
+
+		instructions.setSettlementDay(row,
+				(int) businessDays.findActualSettlementDay(instructions.getSettlementDay(row)));
+		ReportMetrics.record(Stage.SETTLEMENT, start);
 	}
 }
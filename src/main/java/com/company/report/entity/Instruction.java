@@ -3,6 +3,10 @@ package com.company.report.entity;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 
+import com.company.report.utils.CurrencyRegistry;
+import com.company.report.utils.EntityDictionary;
+import com.company.report.utils.FixedPointMath;
+
 /**
  * The entity class which holds data for the trade instructions sent by various
  * clients to JP Morgan.
@@ -12,17 +16,21 @@ import java.time.LocalDate;
  */
 public class Instruction {
 
-	// A financial entity whose shares are to be bought or sold
-	private final String entity;
+	// A financial entity whose shares are to be bought or sold, as the identifier in the EntityDictionary
+	private final int entityId;
 
 	// The trade action (Buy or Sell)
 	private final TradeTxn tradeTxn;
 
 	// The foreign exchange rate with respect to USD that was agreed
-	private final BigDecimal agreedFx;
+	private BigDecimal agreedFx;
+
+	// The unscaled agreed fx and its scale
+	private final long agreedFxUnscaled;
+	private final int agreedFxScale;
 
-	// Currency code for the trade
-	private final String currency;
+	// Currency code for the trade, as the identifier in the CurrencyRegistry
+	private final int currencyId;
 
 	// Date on which the instruction was sent to JP Morgan by various clients
 	private final LocalDate instructionDate;
@@ -34,10 +42,17 @@ public class Instruction {
 	private final int units;
 
 	// The price agreed for each unit in the trade
-	private final BigDecimal pricePerUnit;
+	private BigDecimal pricePerUnit;
+
+	// The unscaled price per unit and its scale
+	private final long pricePerUnitUnscaled;
+	private final int pricePerUnitScale;
 
 	// USD amount of a trade = Price per unit * Units * Agreed Fx
-	private final BigDecimal tradeAmount;
+	private BigDecimal tradeAmount;
+
+	// The trade amount as fixed point amount, FixedPointMath.OVERFLOW if it could not be held exactly
+	private final long fixedPointTradeAmount;
 
 	/**
 	 * @param entity
@@ -52,22 +67,62 @@ public class Instruction {
 	public Instruction(String entity, TradeTxn trade, BigDecimal agreedFx,
 			String currency, LocalDate instructionDate, LocalDate settlementDate,
 			int units, BigDecimal pricePerUnit) {
-		this.entity = entity;
-		this.tradeTxn = trade;
+		this(EntityDictionary.getInstance().getId(entity), trade,
+				FixedPointMath.unscaledValue(agreedFx), agreedFx.scale(),
+				CurrencyRegistry.getInstance().getId(currency),
+				instructionDate, settlementDate, units, FixedPointMath.unscaledValue(pricePerUnit),
+				pricePerUnit.scale());
 		this.agreedFx = agreedFx;
-		this.currency = currency;
+		this.pricePerUnit = pricePerUnit;
+	}
+
+	/**
+	 * Constructs the instruction with the agreed fx and the price per unit as
+	 * unscaled values with their scale, eg: 100.25 is given as 10025 with
+	 * scale 2. The decimal values are created only when requested. The
+	 * entity is given as the identifier in the <code>EntityDictionary</code>
+	 * and the currency as the identifier in the <code>CurrencyRegistry</code>.
+	 *
+	 * @param entityId
+	 * @param trade
+	 * @param agreedFxUnscaled
+	 * @param agreedFxScale
+	 * @param currencyId
+	 * @param instructionDate
+	 * @param settlementDate
+	 * @param units
+	 * @param pricePerUnitUnscaled
+	 * @param pricePerUnitScale
+	 */
+	public Instruction(int entityId, TradeTxn trade, long agreedFxUnscaled, int agreedFxScale,
+			int currencyId, LocalDate instructionDate, LocalDate settlementDate,
+			int units, long pricePerUnitUnscaled, int pricePerUnitScale) {
+		this.entityId = entityId;
+		this.tradeTxn = trade;
+		this.agreedFxUnscaled = agreedFxUnscaled;
+		this.agreedFxScale = agreedFxScale;
+		this.currencyId = currencyId;
 		this.instructionDate = instructionDate;
 		this.settlementDate = settlementDate;
 		this.units = units;
-		this.pricePerUnit = pricePerUnit;
-		this.tradeAmount = calculateTradeAmount();
+		this.pricePerUnitUnscaled = pricePerUnitUnscaled;
+		this.pricePerUnitScale = pricePerUnitScale;
+		this.fixedPointTradeAmount = FixedPointMath.tradeAmount(agreedFxUnscaled, agreedFxScale, units,
+				pricePerUnitUnscaled, pricePerUnitScale);
 	}
 
 	/**
 	 * @return the entity
 	 */
 	public String getEntity() {
-		return entity;
+		return EntityDictionary.getInstance().getEntity(entityId);
+	}
+
+	/**
+	 * @return the identifier of the entity in the EntityDictionary
+	 */
+	public int getEntityId() {
+		return entityId;
 	}
 
 	/**
@@ -81,14 +136,39 @@ public class Instruction {
 	 * @return the agreedFx
 	 */
 	public BigDecimal getAgreedFx() {
+		if (agreedFx == null) {
+			agreedFx = BigDecimal.valueOf(agreedFxUnscaled, agreedFxScale);
+		}
 		return agreedFx;
 	}
 
 	/**
-	 * @return the currency
+	 * @return the unscaled agreed fx, <code>FixedPointMath.OVERFLOW</code> if
+	 *         it does not fit a long
+	 */
+	public long getAgreedFxUnscaled() {
+		return agreedFxUnscaled;
+	}
+
+	/**
+	 * @return the scale of the agreed fx
+	 */
+	public int getAgreedFxScale() {
+		return agreedFxScale;
+	}
+
+	/**
+	 * @return the currency code in upper case
 	 */
 	public String getCurrency() {
-		return currency;
+		return CurrencyRegistry.getInstance().getCurrency(currencyId);
+	}
+
+	/**
+	 * @return the identifier of the currency in the CurrencyRegistry
+	 */
+	public int getCurrencyId() {
+		return currencyId;
 	}
 
 	/**
@@ -116,17 +196,50 @@ public class Instruction {
 	 * @return the pricePerUnit
 	 */
 	public BigDecimal getPricePerUnit() {
+		if (pricePerUnit == null) {
+			pricePerUnit = BigDecimal.valueOf(pricePerUnitUnscaled, pricePerUnitScale);
+		}
 		return pricePerUnit;
 	}
 
+	/**
+	 * @return the unscaled price per unit, <code>FixedPointMath.OVERFLOW</code>
+	 *         if it does not fit a long
+	 */
+	public long getPricePerUnitUnscaled() {
+		return pricePerUnitUnscaled;
+	}
+
+	/**
+	 * @return the scale of the price per unit
+	 */
+	public int getPricePerUnitScale() {
+		return pricePerUnitScale;
+	}
+
 	/**
 	 *
 	 * @return tradeAmount
 	 */
 	public BigDecimal getTradeAmount() {
+		if (tradeAmount == null) {
+			tradeAmount = calculateTradeAmount();
+		}
 		return tradeAmount;
 	}
 
+	/**
+	 * The trade amount as fixed point amount with the scale
+	 * <code>FixedPointMath.SCALE</code>. The fixed point amount is calculated
+	 * without allocating any object.
+	 *
+	 * @return fixedPointTradeAmount, <code>FixedPointMath.OVERFLOW</code> if
+	 *         the trade amount could not be held exactly
+	 */
+	public long getFixedPointTradeAmount() {
+		return fixedPointTradeAmount;
+	}
+
 	/**
 	 * @param settlementDate the settlementDate to set
 	 */
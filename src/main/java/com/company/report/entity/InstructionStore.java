@@ -0,0 +1,323 @@
+package com.company.report.entity;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import com.company.report.utils.FixedPointMath;
+
+/**
+ * The columnar store of the trade instructions. The fields of the
+ * instructions are held in parallel primitive arrays - one array for each
+ * field and one row for each instruction - instead of an
+ * <code>Instruction</code> object for each instruction. The entity and the
+ * currency are held as their identifiers, the dates as epoch days and the
+ * agreed fx and the price per unit as unscaled values with their scale.
+ *
+ * A row takes 39 bytes, so the same day's instructions could be held in memory
+ * and the reports could be generated again by scanning the arrays from the
+ * first to the last row, without reading the data feed again.
+ *
+ * An instruction whose agreed fx or price per unit could not be held as an
+ * unscaled <code>long</code> is rare in the feed and is held as the
+ * <code>Instruction</code> itself, next to its row.
+ *
+ * NOTE: The class is not thread safe while the instructions are added.
+ *
+ * @author prejith.devarajan
+ *
+ */
+public class InstructionStore {
+
+	private static final TradeTxn[] TRADE_TXNS = TradeTxn.values();
+
+	private int size;
+
+	private int[] entityIds;
+
+	private byte[] tradeTxns;
+
+	private long[] agreedFxUnscaled;
+
+	private byte[] agreedFxScales;
+
+	private int[] currencyIds;
+
+	private int[] instructionDays;
+
+	private int[] settlementDays;
+
+	private int[] units;
+
+	private long[] pricePerUnitUnscaled;
+
+	private byte[] pricePerUnitScales;
+
+	// The instructions which could not be held in the primitive arrays, for each row
+	private final Map<Integer, Instruction> decimalInstructions = new HashMap<>();
+
+	public InstructionStore() {
+		this(1024);
+	}
+
+	/**
+	 * @param capacity
+	 *            the number of instructions expected
+	 */
+	public InstructionStore(final int capacity) {
+		resize(Math.max(capacity, 16));
+	}
+
+	/**
+	 * Adds the instruction as the next row of the store
+	 *
+	 * @param instruction
+	 */
+	public void add(final Instruction instruction) {
+		if (size == entityIds.length) {
+			resize(size * 2);
+		}
+
+		final int row = size++;
+		entityIds[row] = instruction.getEntityId();
+		tradeTxns[row] = (byte) instruction.getTradeTxn().ordinal();
+		currencyIds[row] = instruction.getCurrencyId();
+		instructionDays[row] = Math.toIntExact(instruction.getInstructionDate().toEpochDay());
+		settlementDays[row] = Math.toIntExact(instruction.getSettlementDate().toEpochDay());
+		units[row] = instruction.getUnits();
+
+		if (instruction.getAgreedFxUnscaled() == FixedPointMath.OVERFLOW
+				|| instruction.getPricePerUnitUnscaled() == FixedPointMath.OVERFLOW
+				|| instruction.getAgreedFxScale() != (byte) instruction.getAgreedFxScale()
+				|| instruction.getPricePerUnitScale() != (byte) instruction.getPricePerUnitScale()) {
+			decimalInstructions.put(row, instruction);
+			agreedFxUnscaled[row] = FixedPointMath.OVERFLOW;
+			pricePerUnitUnscaled[row] = FixedPointMath.OVERFLOW;
+		} else {
+			agreedFxUnscaled[row] = instruction.getAgreedFxUnscaled();
+			agreedFxScales[row] = (byte) instruction.getAgreedFxScale();
+			pricePerUnitUnscaled[row] = instruction.getPricePerUnitUnscaled();
+			pricePerUnitScales[row] = (byte) instruction.getPricePerUnitScale();
+		}
+	}
+
+	/**
+	 * Adds an instruction as the next row of the store, with the fields given
+	 * as they are held in the columns, eg: as read from a snapshot of the
+	 * store.
+	 *
+	 * @param entityId
+	 * @param tradeTxn
+	 * @param agreedFxUnscaled
+	 * @param agreedFxScale
+	 * @param currencyId
+	 * @param instructionDay
+	 *            the epoch day of the instruction date
+	 * @param settlementDay
+	 *            the epoch day of the settlement date
+	 * @param units
+	 * @param pricePerUnitUnscaled
+	 * @param pricePerUnitScale
+	 */
+	public void add(final int entityId, final TradeTxn tradeTxn, final long agreedFxUnscaled,
+			final byte agreedFxScale, final int currencyId, final int instructionDay, final int settlementDay,
+			final int units, final long pricePerUnitUnscaled, final byte pricePerUnitScale) {
+		if (size == entityIds.length) {
+			resize(size * 2);
+		}
+
+		final int row = size++;
+		this.entityIds[row] = entityId;
+		this.tradeTxns[row] = (byte) tradeTxn.ordinal();
+		this.agreedFxUnscaled[row] = agreedFxUnscaled;
+		this.agreedFxScales[row] = agreedFxScale;
+		this.currencyIds[row] = currencyId;
+		this.instructionDays[row] = instructionDay;
+		this.settlementDays[row] = settlementDay;
+		this.units[row] = units;
+		this.pricePerUnitUnscaled[row] = pricePerUnitUnscaled;
+		this.pricePerUnitScales[row] = pricePerUnitScale;
+	}
+
+	/**
+	 * @return the number of instructions in the store
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Releases the unused capacity of the arrays once all the instructions
+	 * are added
+	 */
+	public void trimToSize() {
+		resize(size);
+	}
+
+	/**
+	 * @param row
+	 * @return the identifier of the entity in the EntityDictionary
+	 */
+	public int getEntityId(final int row) {
+		return entityIds[row];
+	}
+
+	/**
+	 * @param row
+	 * @return the trade action
+	 */
+	public TradeTxn getTradeTxn(final int row) {
+		return TRADE_TXNS[tradeTxns[row]];
+	}
+
+	/**
+	 * @param row
+	 * @return the identifier of the currency in the CurrencyRegistry
+	 */
+	public int getCurrencyId(final int row) {
+		return currencyIds[row];
+	}
+
+	/**
+	 * @param row
+	 * @return the epoch day of the instruction date
+	 */
+	public int getInstructionDay(final int row) {
+		return instructionDays[row];
+	}
+
+	/**
+	 * @param row
+	 * @return the epoch day of the settlement date
+	 */
+	public int getSettlementDay(final int row) {
+		return settlementDays[row];
+	}
+
+	/**
+	 * Changes the settlement date of the instruction, eg: to the actual
+	 * settlement date based on the business days
+	 *
+	 * @param row
+	 * @param settlementDay
+	 *            the epoch day of the settlement date
+	 */
+	public void setSettlementDay(final int row, final int settlementDay) {
+		settlementDays[row] = settlementDay;
+
+		// the decimal instructions are looked up only for the rows marked in the columns
+		if (isDecimalInstruction(row)) {
+			decimalInstructions.get(row).setSettlementDate(LocalDate.ofEpochDay(settlementDay));
+		}
+	}
+
+	/**
+	 * @param row
+	 * @return the number of units
+	 */
+	public int getUnits(final int row) {
+		return units[row];
+	}
+
+	/**
+	 * @param row
+	 * @return the unscaled agreed fx, <code>FixedPointMath.OVERFLOW</code> if
+	 *         the row holds a decimal instruction
+	 */
+	public long getAgreedFxUnscaled(final int row) {
+		return agreedFxUnscaled[row];
+	}
+
+	/**
+	 * @param row
+	 * @return the scale of the agreed fx
+	 */
+	public byte getAgreedFxScale(final int row) {
+		return agreedFxScales[row];
+	}
+
+	/**
+	 * @param row
+	 * @return the unscaled price per unit, <code>FixedPointMath.OVERFLOW</code>
+	 *         if the row holds a decimal instruction
+	 */
+	public long getPricePerUnitUnscaled(final int row) {
+		return pricePerUnitUnscaled[row];
+	}
+
+	/**
+	 * @param row
+	 * @return the scale of the price per unit
+	 */
+	public byte getPricePerUnitScale(final int row) {
+		return pricePerUnitScales[row];
+	}
+
+	/**
+	 * @param row
+	 * @return true if the row holds an instruction whose agreed fx or price
+	 *         per unit could not be held in the columns
+	 */
+	public boolean isDecimalInstruction(final int row) {
+		return agreedFxUnscaled[row] == FixedPointMath.OVERFLOW && decimalInstructions.containsKey(row);
+	}
+
+	/**
+	 * The trade amount as fixed point amount with the scale
+	 * <code>FixedPointMath.SCALE</code>, calculated from the columns without
+	 * allocating any object.
+	 *
+	 * @param row
+	 * @return the fixed point trade amount, <code>FixedPointMath.OVERFLOW</code>
+	 *         if the trade amount could not be held exactly
+	 */
+	public long getFixedPointTradeAmount(final int row) {
+		return FixedPointMath.tradeAmount(agreedFxUnscaled[row], agreedFxScales[row], units[row],
+				pricePerUnitUnscaled[row], pricePerUnitScales[row]);
+	}
+
+	/**
+	 * Constructs the <code>Instruction</code> for the row, eg: for the code
+	 * which does not read the columns directly.
+	 *
+	 * @param row
+	 * @return the instruction
+	 */
+	public Instruction getInstruction(final int row) {
+		if (isDecimalInstruction(row)) {
+			return decimalInstructions.get(row);
+		}
+
+		return new Instruction(entityIds[row], getTradeTxn(row), agreedFxUnscaled[row], agreedFxScales[row],
+				currencyIds[row], LocalDate.ofEpochDay(instructionDays[row]), LocalDate.ofEpochDay(settlementDays[row]),
+				units[row], pricePerUnitUnscaled[row], pricePerUnitScales[row]);
+	}
+
+	private void resize(final int capacity) {
+		if (entityIds == null) {
+			entityIds = new int[capacity];
+			tradeTxns = new byte[capacity];
+			agreedFxUnscaled = new long[capacity];
+			agreedFxScales = new byte[capacity];
+			currencyIds = new int[capacity];
+			instructionDays = new int[capacity];
+			settlementDays = new int[capacity];
+			units = new int[capacity];
+			pricePerUnitUnscaled = new long[capacity];
+			pricePerUnitScales = new byte[capacity];
+			return;
+		}
+
+		entityIds = Arrays.copyOf(entityIds, capacity);
+		tradeTxns = Arrays.copyOf(tradeTxns, capacity);
+		agreedFxUnscaled = Arrays.copyOf(agreedFxUnscaled, capacity);
+		agreedFxScales = Arrays.copyOf(agreedFxScales, capacity);
+		currencyIds = Arrays.copyOf(currencyIds, capacity);
+		instructionDays = Arrays.copyOf(instructionDays, capacity);
+		settlementDays = Arrays.copyOf(settlementDays, capacity);
+		units = Arrays.copyOf(units, capacity);
+		pricePerUnitUnscaled = Arrays.copyOf(pricePerUnitUnscaled, capacity);
+		pricePerUnitScales = Arrays.copyOf(pricePerUnitScales, capacity);
+	}
+}
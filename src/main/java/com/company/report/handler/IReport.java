@@ -1,11 +1,20 @@
 package com.company.report.handler;
 
+import java.io.IOException;
+import java.math.BigDecimal;
+
 /**
  * The interface class which defines the daily report. The class defines methods
  * specific to displaying the report.
  *
  * Any specific report type needs to implement this class and override the print
- * method for specific display logic.
+ * method for specific display logic. The report overrides the export method
+ * to hand over its rows to the machine readable formats, and the report which
+ * could be generated by several workers overrides the merge method to combine
+ * the reports of the workers.
+ *
+ * The reports of a settlement date are printed and exported in the order of
+ * their <code>TradeReport</code> constants.
  *
  * @author prejith.devarajan
  *
@@ -19,4 +28,66 @@ public interface IReport {
 	 * @return display text for the report
 	 */
 	StringBuilder printReport();
+
+	/**
+	 * Writes the text format of the report to the output, eg: a buffered
+	 * writer to the console. The report which could be large overrides the
+	 * method to write the text as it is constructed, instead of constructing
+	 * the whole text first.
+	 *
+	 * @param out
+	 *            the output for the text of the report
+	 * @throws IOException
+	 */
+	default void printReport(Appendable out) throws IOException {
+		out.append(printReport());
+	}
+
+	/**
+	 * Hands over the rows of the report for the machine readable export
+	 * formats, eg: CSV. A report with a single amount has a single row without
+	 * a rank and an entity, a ranking report has a row for each ranked
+	 * entity.
+	 *
+	 * By default the text format of the report is handed over as a single row
+	 * without a rank and an amount, in the place of the entity.
+	 *
+	 * @param rows
+	 *            the consumer for each row of the report
+	 * @throws IOException
+	 */
+	default void exportRows(RowConsumer rows) throws IOException {
+		rows.accept(0, printReport().toString(), null);
+	}
+
+	/**
+	 * Adds the data of another report of the same type to this report. The
+	 * reports generated for separate parts of the instructions could then be
+	 * combined to the report for all the instructions.
+	 *
+	 * @param report
+	 *            the report to be added to this report
+	 */
+	default void merge(IReport report) {
+		throw new UnsupportedOperationException("Merge is not supported for report: " + getClass().getName());
+	}
+
+	/**
+	 * The consumer for the rows of a report which are exported
+	 */
+	@FunctionalInterface
+	interface RowConsumer {
+
+		/**
+		 * @param rank
+		 *            the rank of the entity, 0 if the row is not ranked
+		 * @param entity
+		 *            the entity, null if the row is not for an entity, or the
+		 *            text of the report which does not export its rows
+		 * @param amount
+		 *            the amount in USD, null if the row has no amount
+		 * @throws IOException
+		 */
+		void accept(int rank, String entity, BigDecimal amount) throws IOException;
+	}
 }
@@ -0,0 +1,57 @@
+package com.company.report.handler;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.Map;
+
+import com.company.report.entity.TradeReport;
+
+/**
+ * The interface class which defines the export of the daily reports in a
+ * specific format, eg: the text for the console or a machine readable format
+ * for the downstream systems.
+ *
+ * The reports are exported one settlement date at a time and each line is
+ * written to the output as it is constructed, so the exporter does not hold
+ * the text of all the reports.
+ *
+ * @author prejith.devarajan
+ *
+ */
+public interface IReportExporter {
+
+	/**
+	 * Writes the lines which come before the reports of the first date, eg:
+	 * the column names
+	 *
+	 * @param out
+	 * 			the output for the exported reports
+	 * @throws IOException
+	 */
+	default void exportHeader(Appendable out) throws IOException {
+	}
+
+	/**
+	 * Writes the reports for a settlement date
+	 *
+	 * @param settlementDate
+	 * 			the settlement date of the reports
+	 * @param reportData
+	 * 			the reports for the settlement date
+	 * @param out
+	 * 			the output for the exported reports
+	 * @throws IOException
+	 */
+	void exportDailyReports(LocalDate settlementDate, Map<TradeReport, IReport> reportData, Appendable out)
+			throws IOException;
+
+	/**
+	 * Writes the lines which come after the reports of the last date
+	 *
+	 * @param out
+	 * 			the output for the exported reports
+	 * @throws IOException
+	 */
+	default void exportFooter(Appendable out) throws IOException {
+	}
+}
@@ -3,6 +3,7 @@ package com.company.report.handler;
 import java.util.Map;
 
 import com.company.report.entity.Instruction;
+import com.company.report.entity.InstructionStore;
 import com.company.report.entity.TradeReport;
 
 /**
@@ -10,7 +11,9 @@ import com.company.report.entity.TradeReport;
  * defines methods specific to generate the respective report.
  *
  * Any specific report needs to implement this class and override the generate
- * report for specific report generation logic.
+ * report for specific report generation logic. The generator which supports
+ * the concurrent aggregation overrides the method to add the thread safe
+ * report.
  *
  * @author prejith.devarajan
  *
@@ -27,4 +30,45 @@ public interface IReportGenerator {
 	 * 					the instructions entity to be considered for generating report
 	 */
 	void generateReport(Map<TradeReport, IReport> tradeReport, Instruction instruction);
+
+	/**
+	 * Defines the report generation logic for an instruction in the columnar
+	 * instruction store. The generators could read the columns of the row
+	 * directly, by default the instruction of the row is constructed.
+	 *
+	 * @param tradeReport
+	 * 					the report data for the specific report type
+	 * @param instructions
+	 * 					the columnar instruction store
+	 * @param row
+	 * 					the row of the instruction to be considered for generating report
+	 */
+	default void generateReport(Map<TradeReport, IReport> tradeReport, InstructionStore instructions, int row) {
+		generateReport(tradeReport, instructions.getInstruction(row));
+	}
+
+	/**
+	 * Adds the empty report of the generator which could be updated by several
+	 * threads at the same time. For the concurrent aggregation the reports for
+	 * a settlement date are added before any instruction is passed to the
+	 * generators, so the generators find and update the thread safe reports.
+	 *
+	 * @param tradeReport
+	 * 					the report data for the settlement date
+	 */
+	default void addConcurrentReport(Map<TradeReport, IReport> tradeReport) {
+		throw new UnsupportedOperationException("Concurrent report is not supported for: " + getClass().getName());
+	}
+
+	/**
+	 * Identifies whether the reports of the generator could be merged, so the
+	 * reports generated by several workers for separate parts of the
+	 * instructions could be combined. The generator which overrides the merge
+	 * method of its reports overrides this method to return true.
+	 *
+	 * @return true if the reports of the generator could be merged
+	 */
+	default boolean isMergeable() {
+		return false;
+	}
 }
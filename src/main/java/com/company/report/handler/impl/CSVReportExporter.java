@@ -0,0 +1,82 @@
+package com.company.report.handler.impl;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.Map.Entry;
+
+import com.company.report.entity.TradeReport;
+import com.company.report.handler.IReport;
+import com.company.report.handler.IReportExporter;
+
+/**
+ * The exporter for the CSV format of the reports. Each line holds the
+ * settlement date (yyyy-MM-dd), the report, the rank, the entity and the
+ * amount in USD. The amount reports have an empty rank and entity, the
+ * ranking reports have a line for each ranked entity.
+ *
+ * 	settlement_date,report,rank,entity,amount
+ * 	2017-01-02,DAILY_OUTGOING_AMOUNT_REPORT,,,10025.000
+ * 	2017-01-02,DAILY_OUTGOING_RANKING_REPORT,1,Sample Traders,10025.000
+ *
+ * The rank and the entity are empty for a row which is not ranked, and the
+ * amount is empty for the text of a report which does not export its rows.
+ * The entity is quoted if it contains the delimiter, a quote or a line
+ * separator.
+ *
+ * @author prejith.devarajan
+ *
+ */
+public class CSVReportExporter implements IReportExporter {
+
+	@Override
+	public void exportHeader(final Appendable out) throws IOException {
+		out.append("settlement_date,report,rank,entity,amount\n");
+	}
+
+	@Override
+	public void exportDailyReports(final LocalDate settlementDate, final Map<TradeReport, IReport> reportData,
+			final Appendable out) throws IOException {
+		final String date = settlementDate.toString();
+
+		for (Entry<TradeReport, IReport> report : reportData.entrySet()) {
+			final String reportName = report.getKey().name();
+
+			report.getValue().exportRows((rank, entity, amount) -> {
+				out.append(date).append(',')
+					.append(reportName).append(',')
+					.append(rank == 0 ? "" : String.valueOf(rank)).append(',');
+				if (entity != null) {
+					appendEntity(out, entity);
+				}
+				out.append(',');
+				if (amount != null) {
+					out.append(amount.toPlainString());
+				}
+				out.append('\n');
+			});
+		}
+	}
+
+	private static void appendEntity(final Appendable out, final String entity) throws IOException {
+		boolean quote = false;
+		for (int i = 0; i < entity.length() && !quote; i++) {
+			final char c = entity.charAt(i);
+			quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+		}
+		if (!quote) {
+			out.append(entity);
+			return;
+		}
+
+		out.append('"');
+		for (int i = 0; i < entity.length(); i++) {
+			final char c = entity.charAt(i);
+			if (c == '"') {
+				out.append('"');
+			}
+			out.append(c);
+		}
+		out.append('"');
+	}
+}
@@ -0,0 +1,203 @@
+package com.company.report.handler.impl;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import com.company.report.entity.Instruction;
+import com.company.report.entity.InstructionStore;
+import com.company.report.entity.TradeReport;
+import com.company.report.entity.TradeTxn;
+import com.company.report.handler.IReport;
+import com.company.report.handler.IReportGenerator;
+import com.company.report.utils.StripedMoneyAccumulator;
+
+/**
+ * The implementation class which generates the incoming and outgoing amount
+ * and ranking reports in a single pass. The class defines the same logic as
+ * the four report generators, but the trade transaction of the instruction is
+ * checked once and only the amount and ranking reports of the transaction are
+ * looked up, instead of each generator looking up its own report for every
+ * instruction.
+ *
+ * The generator replaces the four report generators in the registry of the
+ * <code>ReportFactory</code> when all of them are registered, unless the system property
+ * <code>report.generators.fused</code> is set to false. Any other registered
+ * generator is still invoked for each instruction.
+ *
+ * @author prejith.devarajan
+ *
+ */
+public class FusedReportGenerator implements IReportGenerator {
+
+	// The number of report generators whose reports are generated by the fused generator
+	private static final int FUSED_GENERATORS = 4;
+
+	/**
+	 * Identifies the report generators whose reports are generated by the
+	 * fused generator.
+	 *
+	 * @param generator
+	 * @return true if the reports of the generator are generated by the fused
+	 *         generator
+	 */
+	public static boolean isFused(final IReportGenerator generator) {
+		final Class<?> generatorClass = generator.getClass();
+
+		return generatorClass == OutgoingRankingReportGenerator.class
+				|| generatorClass == IncomingRankingReportGenerator.class
+				|| generatorClass == OutgoingAmountReportGenerator.class
+				|| generatorClass == IncomingAmountReportGenerator.class;
+	}
+
+	/**
+	 * Replaces the four amount and ranking report generators with the fused
+	 * generator, at the place of the first of them. The generators are left
+	 * as they are if any of the four is not in the list, so that no report is
+	 * generated which is not registered.
+	 *
+	 * @param generators
+	 *            the report generators, changed in place
+	 */
+	public static void fuse(final List<IReportGenerator> generators) {
+		int fusedIndex = -1;
+		final Set<Class<?>> fusedClasses = new HashSet<>();
+		for (int index = generators.size() - 1; index >= 0; index--) {
+			if (isFused(generators.get(index))) {
+				fusedIndex = index;
+				fusedClasses.add(generators.get(index).getClass());
+			}
+		}
+
+		if (fusedClasses.size() == FUSED_GENERATORS) {
+			generators.removeIf(FusedReportGenerator::isFused);
+			generators.add(fusedIndex, new FusedReportGenerator());
+		}
+	}
+
+	/**
+	 * Defines the report generation logic. The trade amount of the instruction
+	 * is added to the amount report and to the ranking report of its trade
+	 * transaction - outgoing for a buy and incoming for a sell.
+	 *
+	 * All the four reports are added for the settlement date with the first
+	 * instruction, so the reports are displayed even if no instruction of the
+	 * trade transaction is available for the date.
+	 *
+	 * @param tradeReport
+	 *            The map which holds the report data, each entry representing
+	 *            each report type
+	 * @param instruction
+	 *            The trade instruction
+	 */
+	@Override
+	public void generateReport(final Map<TradeReport, IReport> tradeReport, final Instruction instruction) {
+		if (TradeTxn.BUY == instruction.getTradeTxn()) {
+			getAmountReport(tradeReport, TradeReport.DAILY_OUTGOING_AMOUNT_REPORT).addAmount(instruction);
+			getRankingReport(tradeReport, TradeReport.DAILY_OUTGOING_RANKING_REPORT).addEntityAmount(instruction);
+		} else {
+			getAmountReport(tradeReport, TradeReport.DAILY_INCOMING_AMOUNT_REPORT).addAmount(instruction);
+			getRankingReport(tradeReport, TradeReport.DAILY_INCOMING_RANKING_REPORT).addEntityAmount(instruction);
+		}
+	}
+
+	/**
+	 * Defines the report generation logic for an instruction in the columnar
+	 * instruction store. The trade amount is calculated once from the columns
+	 * of the row for both the amount and the ranking report.
+	 *
+	 * @param tradeReport
+	 *            The map which holds the report data, each entry representing
+	 *            each report type
+	 * @param instructions
+	 *            The columnar instruction store
+	 * @param row
+	 *            The row of the trade instruction
+	 */
+	@Override
+	public void generateReport(final Map<TradeReport, IReport> tradeReport, final InstructionStore instructions,
+			final int row) {
+		final long tradeAmount = instructions.getFixedPointTradeAmount(row);
+
+		if (TradeTxn.BUY == instructions.getTradeTxn(row)) {
+			getAmountReport(tradeReport, TradeReport.DAILY_OUTGOING_AMOUNT_REPORT)
+				.addAmount(instructions, row, tradeAmount);
+			getRankingReport(tradeReport, TradeReport.DAILY_OUTGOING_RANKING_REPORT)
+				.addEntityAmount(instructions, row, tradeAmount);
+		} else {
+			getAmountReport(tradeReport, TradeReport.DAILY_INCOMING_AMOUNT_REPORT)
+				.addAmount(instructions, row, tradeAmount);
+			getRankingReport(tradeReport, TradeReport.DAILY_INCOMING_RANKING_REPORT)
+				.addEntityAmount(instructions, row, tradeAmount);
+		}
+	}
+
+	/**
+	 * Adds the amount and ranking reports which could be updated by several
+	 * threads at the same time.
+	 *
+	 * @param tradeReport
+	 *            The map which holds the report data for the settlement date
+	 */
+	@Override
+	public void addConcurrentReport(final Map<TradeReport, IReport> tradeReport) {
+		tradeReport.put(TradeReport.DAILY_OUTGOING_RANKING_REPORT,
+				new TradeRankingReport(TradeReport.DAILY_OUTGOING_RANKING_REPORT, true));
+		tradeReport.put(TradeReport.DAILY_INCOMING_RANKING_REPORT,
+				new TradeRankingReport(TradeReport.DAILY_INCOMING_RANKING_REPORT, true));
+		tradeReport.put(TradeReport.DAILY_OUTGOING_AMOUNT_REPORT,
+				new TradeAmountReport(TradeReport.DAILY_OUTGOING_AMOUNT_REPORT, new StripedMoneyAccumulator()));
+		tradeReport.put(TradeReport.DAILY_INCOMING_AMOUNT_REPORT,
+				new TradeAmountReport(TradeReport.DAILY_INCOMING_AMOUNT_REPORT, new StripedMoneyAccumulator()));
+	}
+
+	/**
+	 * The amount and ranking reports could be merged.
+	 *
+	 * @return true
+	 */
+	@Override
+	public boolean isMergeable() {
+		return true;
+	}
+
+	private static TradeAmountReport getAmountReport(final Map<TradeReport, IReport> tradeReport,
+			final TradeReport reportType) {
+		TradeAmountReport report = TradeAmountReport.getReport(tradeReport, reportType);
+		if (report == null) {
+			addReports(tradeReport);
+			report = TradeAmountReport.getReport(tradeReport, reportType);
+		}
+		return report;
+	}
+
+	private static TradeRankingReport getRankingReport(final Map<TradeReport, IReport> tradeReport,
+			final TradeReport reportType) {
+		TradeRankingReport report = TradeRankingReport.getReport(tradeReport, reportType);
+		if (report == null) {
+			addReports(tradeReport);
+			report = TradeRankingReport.getReport(tradeReport, reportType);
+		}
+		return report;
+	}
+
+	/**
+	 * Adds the reports which are not already defined for the settlement date.
+	 * This creates an entry for each report even if the whole instructions
+	 * does not contain an instruction for the report.
+	 *
+	 * @param tradeReport
+	 *            The map which holds the report data for the settlement date
+	 */
+	private static void addReports(final Map<TradeReport, IReport> tradeReport) {
+		tradeReport.putIfAbsent(TradeReport.DAILY_OUTGOING_RANKING_REPORT,
+				new TradeRankingReport(TradeReport.DAILY_OUTGOING_RANKING_REPORT));
+		tradeReport.putIfAbsent(TradeReport.DAILY_INCOMING_RANKING_REPORT,
+				new TradeRankingReport(TradeReport.DAILY_INCOMING_RANKING_REPORT));
+		tradeReport.putIfAbsent(TradeReport.DAILY_OUTGOING_AMOUNT_REPORT,
+				new TradeAmountReport(TradeReport.DAILY_OUTGOING_AMOUNT_REPORT));
+		tradeReport.putIfAbsent(TradeReport.DAILY_INCOMING_AMOUNT_REPORT,
+				new TradeAmountReport(TradeReport.DAILY_INCOMING_AMOUNT_REPORT));
+	}
+}
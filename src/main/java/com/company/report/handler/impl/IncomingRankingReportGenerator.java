@@ -3,6 +3,7 @@ package com.company.report.handler.impl;
 import java.util.Map;
 
 import com.company.report.entity.Instruction;
+import com.company.report.entity.InstructionStore;
 import com.company.report.entity.TradeReport;
 import com.company.report.entity.TradeTxn;
 import com.company.report.handler.IReport;
@@ -40,7 +41,72 @@ public class IncomingRankingReportGenerator implements IReportGenerator {
 	@Override
 	public void generateReport(Map<TradeReport, IReport> tradeReport, Instruction instruction) {
 
-		TradeRankingReport report = (TradeRankingReport) tradeReport.get(TradeReport.DAILY_INCOMING_RANKING_REPORT);
+		TradeRankingReport report = getReport(tradeReport);
+
+		/*
+		 * Sum the trade amount if it is incoming transaction for the entity of
+		 * instruction. The ranking reports hold a map with entity as the key
+		 * and the trade amount for entity as value.
+		 */
+		if(TradeTxn.SELL.equals(instruction.getTradeTxn())) {
+			report.addEntityAmount(instruction);
+		}
+	}
+
+	/**
+	 * Defines the report generation logic for an instruction in the columnar
+	 * instruction store. The trade amount is read from the columns of the row
+	 * without constructing the <code>Instruction</code>.
+	 *
+	 * @param tradeReport
+	 *            The map which holds the report data, each entry representing
+	 *            each report type
+	 * @param instructions
+	 *            The columnar instruction store
+	 * @param row
+	 *            The row of the trade instruction
+	 */
+	@Override
+	public void generateReport(Map<TradeReport, IReport> tradeReport, InstructionStore instructions, int row) {
+		TradeRankingReport report = getReport(tradeReport);
+
+		if(TradeTxn.SELL == instructions.getTradeTxn(row)) {
+			report.addEntityAmount(instructions, row);
+		}
+	}
+
+	/**
+	 * Adds the <code>TradeRankingReport</code> which could be updated by several
+	 * threads at the same time.
+	 *
+	 * @param tradeReport
+	 *            The map which holds the report data for the settlement date
+	 */
+	@Override
+	public void addConcurrentReport(Map<TradeReport, IReport> tradeReport) {
+		tradeReport.put(TradeReport.DAILY_INCOMING_RANKING_REPORT,
+				new TradeRankingReport(TradeReport.DAILY_INCOMING_RANKING_REPORT, true));
+	}
+
+	/**
+	 * The <code>TradeRankingReport</code> could be merged.
+	 *
+	 * @return true
+	 */
+	@Override
+	public boolean isMergeable() {
+		return true;
+	}
+
+	/**
+	 * Returns the <code>TradeRankingReport</code> for the settlement date.
+	 *
+	 * @param tradeReport
+	 *            The map which holds the report data for the settlement date
+	 * @return the report
+	 */
+	private TradeRankingReport getReport(Map<TradeReport, IReport> tradeReport) {
+		TradeRankingReport report = TradeRankingReport.getReport(tradeReport, TradeReport.DAILY_INCOMING_RANKING_REPORT);
 		/*
 		 * Create new report instance if no report for the settlement date is
 		 * already defined. This creates an entry even if the whole instructions
@@ -50,14 +116,6 @@ public class IncomingRankingReportGenerator implements IReportGenerator {
 			report = new TradeRankingReport(TradeReport.DAILY_INCOMING_RANKING_REPORT);
 			tradeReport.put(TradeReport.DAILY_INCOMING_RANKING_REPORT, report);
 		}
-
-		/*
-		 * Sum the trade amount if it is incoming transaction for the entity of
-		 * instruction. The ranking reports hold a map with entity as the key
-		 * and the trade amount for entity as value.
-		 */
-		if(TradeTxn.SELL.equals(instruction.getTradeTxn())) {
-			report.addEntityAmount(instruction.getEntity(), instruction.getTradeAmount());
-		}
+		return report;
 	}
 }
@@ -0,0 +1,67 @@
+package com.company.report.handler.impl;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.Map.Entry;
+
+import com.company.report.entity.TradeReport;
+import com.company.report.handler.IReport;
+import com.company.report.handler.IReportExporter;
+
+/**
+ * The exporter for the JSON Lines format of the reports. Each line is a JSON
+ * object for each row of a report - the amount report or a ranked entity of
+ * the ranking report. The rank and the entity are left out for a row which is
+ * not ranked, the amount is left out for the text of a report which does not
+ * export its rows.
+ * The amounts are written as JSON numbers, so no precision is lost.
+ *
+ * 	{"settlementDate":"2017-01-02","report":"DAILY_OUTGOING_AMOUNT_REPORT","amount":10025.000}
+ * 	{"settlementDate":"2017-01-02","report":"DAILY_OUTGOING_RANKING_REPORT","rank":1,"entity":"Sample Traders","amount":10025.000}
+ *
+ * @author prejith.devarajan
+ *
+ */
+public class JSONLinesReportExporter implements IReportExporter {
+
+	@Override
+	public void exportDailyReports(final LocalDate settlementDate, final Map<TradeReport, IReport> reportData,
+			final Appendable out) throws IOException {
+		final String date = settlementDate.toString();
+
+		for (Entry<TradeReport, IReport> report : reportData.entrySet()) {
+			final String reportName = report.getKey().name();
+
+			report.getValue().exportRows((rank, entity, amount) -> {
+				out.append("{\"settlementDate\":\"").append(date)
+					.append("\",\"report\":\"").append(reportName).append('"');
+				if (rank > 0) {
+					out.append(",\"rank\":").append(String.valueOf(rank));
+				}
+				if (entity != null) {
+					out.append(",\"entity\":\"");
+					appendEscaped(out, entity);
+					out.append('"');
+				}
+				if (amount != null) {
+					out.append(",\"amount\":").append(amount.toPlainString());
+				}
+				out.append("}\n");
+			});
+		}
+	}
+
+	private static void appendEscaped(final Appendable out, final String text) throws IOException {
+		for (int i = 0; i < text.length(); i++) {
+			final char c = text.charAt(i);
+			if (c == '"' || c == '\\') {
+				out.append('\\').append(c);
+			} else if (c < 0x20) {
+				out.append(String.format("\\u%04x", (int) c));
+			} else {
+				out.append(c);
+			}
+		}
+	}
+}
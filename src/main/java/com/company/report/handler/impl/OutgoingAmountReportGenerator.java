@@ -3,10 +3,12 @@ package com.company.report.handler.impl;
 import java.util.Map;
 
 import com.company.report.entity.Instruction;
+import com.company.report.entity.InstructionStore;
 import com.company.report.entity.TradeReport;
 import com.company.report.entity.TradeTxn;
 import com.company.report.handler.IReport;
 import com.company.report.handler.IReportGenerator;
+import com.company.report.utils.StripedMoneyAccumulator;
 
 /**
  * The implementation class for the outgoing amount report. The class defines the
@@ -40,7 +42,68 @@ public class OutgoingAmountReportGenerator implements IReportGenerator {
 	@Override
 	public void generateReport(Map<TradeReport, IReport> tradeReport, final Instruction instruction) {
 
-		TradeAmountReport report = (TradeAmountReport) tradeReport.get(TradeReport.DAILY_OUTGOING_AMOUNT_REPORT);
+		TradeAmountReport report = getReport(tradeReport);
+
+		// Sum the trade amount if it is outgoing transaction for instruction
+		if(TradeTxn.BUY.equals(instruction.getTradeTxn())) {
+			report.addAmount(instruction);
+		}
+	}
+
+	/**
+	 * Defines the report generation logic for an instruction in the columnar
+	 * instruction store. The trade amount is read from the columns of the row
+	 * without constructing the <code>Instruction</code>.
+	 *
+	 * @param tradeReport
+	 *            The map which holds the report data, each entry representing
+	 *            each report type
+	 * @param instructions
+	 *            The columnar instruction store
+	 * @param row
+	 *            The row of the trade instruction
+	 */
+	@Override
+	public void generateReport(Map<TradeReport, IReport> tradeReport, InstructionStore instructions, int row) {
+		TradeAmountReport report = getReport(tradeReport);
+
+		if(TradeTxn.BUY == instructions.getTradeTxn(row)) {
+			report.addAmount(instructions, row);
+		}
+	}
+
+	/**
+	 * Adds the <code>TradeAmountReport</code> which could be updated by several
+	 * threads at the same time.
+	 *
+	 * @param tradeReport
+	 *            The map which holds the report data for the settlement date
+	 */
+	@Override
+	public void addConcurrentReport(Map<TradeReport, IReport> tradeReport) {
+		tradeReport.put(TradeReport.DAILY_OUTGOING_AMOUNT_REPORT,
+				new TradeAmountReport(TradeReport.DAILY_OUTGOING_AMOUNT_REPORT, new StripedMoneyAccumulator()));
+	}
+
+	/**
+	 * The <code>TradeAmountReport</code> could be merged.
+	 *
+	 * @return true
+	 */
+	@Override
+	public boolean isMergeable() {
+		return true;
+	}
+
+	/**
+	 * Returns the <code>TradeAmountReport</code> for the settlement date.
+	 *
+	 * @param tradeReport
+	 *            The map which holds the report data for the settlement date
+	 * @return the report
+	 */
+	private TradeAmountReport getReport(Map<TradeReport, IReport> tradeReport) {
+		TradeAmountReport report = TradeAmountReport.getReport(tradeReport, TradeReport.DAILY_OUTGOING_AMOUNT_REPORT);
 		/*
 		 * Create new report instance if no report for the settlement date is
 		 * already defined. This creates an entry even if the whole instructions
@@ -50,10 +113,6 @@ public class OutgoingAmountReportGenerator implements IReportGenerator {
 			report = new TradeAmountReport(TradeReport.DAILY_OUTGOING_AMOUNT_REPORT);
 			tradeReport.put(TradeReport.DAILY_OUTGOING_AMOUNT_REPORT, report);
 		}
-
-		// Sum the trade amount if it is outgoing transaction for instruction
-		if(TradeTxn.BUY.equals(instruction.getTradeTxn())) {
-			report.addAmount(instruction.getTradeAmount());
-		}
+		return report;
 	}
 }
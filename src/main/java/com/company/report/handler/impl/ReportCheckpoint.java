@@ -0,0 +1,255 @@
+package com.company.report.handler.impl;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.zip.CRC32;
+
+import com.company.report.entity.TradeReport;
+import com.company.report.handler.IReport;
+import com.company.report.handler.IReportGenerator;
+import com.company.report.utils.EpochDayMap;
+import com.company.report.utils.MoneyAccumulator;
+
+/**
+ * The checkpoint of the daily reports. The state of the trade amount and the
+ * trade ranking reports for each settlement date is persisted to a local file
+ * along with the position in the data feed covered by the reports, so that a
+ * failed job could resume from the checkpoint instead of reading the whole
+ * feed again.
+ *
+ * The checkpoint file is written to a temporary file next to it and then moved
+ * in place, so a failure while writing leaves the previous checkpoint intact.
+ *
+ * The checkpoint holds the checksum of the first block of the data feed, up
+ * to the position covered. A checkpoint is rejected if the feed does not
+ * start with the same block or is smaller than the position, eg: the
+ * checkpoint of the previous day is found for the feed of the next day.
+ *
+ * @author prejith.devarajan
+ *
+ */
+public class ReportCheckpoint {
+
+	private static final int MAGIC = 0x54524350; // TRCP
+
+	private static final int VERSION = 2;
+
+	// The number of bytes at the start of the data feed covered by the checksum
+	private static final int FEED_BLOCK_SIZE = 64 * 1024;
+
+	private static final byte AMOUNT_REPORT = 'A';
+
+	private static final byte RANKING_REPORT = 'R';
+
+	private final long position;
+
+	private final EpochDayMap<Map<TradeReport, IReport>> tradingReports;
+
+	private ReportCheckpoint(final long position, final EpochDayMap<Map<TradeReport, IReport>> tradingReports) {
+		this.position = position;
+		this.tradingReports = tradingReports;
+	}
+
+	/**
+	 * @return the position in the data feed covered by the reports
+	 */
+	public long getPosition() {
+		return position;
+	}
+
+	/**
+	 * @return the reports for each settlement date
+	 */
+	public EpochDayMap<Map<TradeReport, IReport>> getTradingReports() {
+		return tradingReports;
+	}
+
+	/**
+	 * Checks the reports of the generators could be written to a checkpoint.
+	 * Only the trade amount and the trade ranking reports of the built-in
+	 * generators are written, so a run with any other generator fails before
+	 * the data feed is read instead of at the first checkpoint.
+	 *
+	 * @param generators
+	 *            the report generators of the run
+	 */
+	public static void checkSupported(final IReportGenerator[] generators) {
+		for (IReportGenerator generator : generators) {
+			if (!(generator instanceof FusedReportGenerator) && !FusedReportGenerator.isFused(generator)) {
+				throw new IllegalStateException("Checkpoint is not supported for the reports of generator: "
+						+ generator.getClass().getName());
+			}
+		}
+	}
+
+	/**
+	 * Writes the checkpoint of the reports.
+	 *
+	 * @param checkpointPath
+	 *            the path of the checkpoint file
+	 * @param tradingReports
+	 *            the reports for each settlement date
+	 * @param feedPath
+	 *            the path of the data feed file
+	 * @param position
+	 *            the position in the data feed covered by the reports
+	 * @throws IOException
+	 */
+	public static void write(final Path checkpointPath, final Map<LocalDate, Map<TradeReport, IReport>> tradingReports,
+			final Path feedPath, final long position) throws IOException {
+		final Path tempPath = checkpointPath.resolveSibling(checkpointPath.getFileName() + ".tmp");
+		final int feedBlockSize = (int) Math.min(position, FEED_BLOCK_SIZE);
+		final long feedChecksum = feedChecksum(feedPath, feedBlockSize);
+
+		try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tempPath)))) {
+			out.writeInt(MAGIC);
+			out.writeInt(VERSION);
+			out.writeLong(position);
+			out.writeInt(feedBlockSize);
+			out.writeLong(feedChecksum);
+			out.writeInt(tradingReports.size());
+
+			for (Entry<LocalDate, Map<TradeReport, IReport>> dailyReport : tradingReports.entrySet()) {
+				out.writeLong(dailyReport.getKey().toEpochDay());
+				out.writeInt(dailyReport.getValue().size());
+
+				for (Entry<TradeReport, IReport> report : dailyReport.getValue().entrySet()) {
+					out.writeUTF(report.getKey().name());
+					if (report.getValue() instanceof TradeAmountReport) {
+						out.writeByte(AMOUNT_REPORT);
+						((TradeAmountReport) report.getValue()).writeTo(out);
+					} else if (report.getValue() instanceof TradeRankingReport) {
+						out.writeByte(RANKING_REPORT);
+						((TradeRankingReport) report.getValue()).writeTo(out);
+					} else {
+						throw new IllegalArgumentException("Checkpoint is not supported for report: "
+								+ report.getValue().getClass().getName());
+					}
+				}
+			}
+		}
+		Files.move(tempPath, checkpointPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+	}
+
+	/**
+	 * Reads the checkpoint of the reports.
+	 *
+	 * @param checkpointPath
+	 *            the path of the checkpoint file
+	 * @param feedPath
+	 *            the path of the data feed file to be resumed
+	 * @return the checkpoint
+	 * @throws IOException
+	 *             if the checkpoint was not written for the data feed
+	 */
+	public static ReportCheckpoint read(final Path checkpointPath, final Path feedPath) throws IOException {
+		try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(checkpointPath)))) {
+			if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+				throw new IOException("Not a supported report checkpoint: " + checkpointPath);
+			}
+
+			final long position = in.readLong();
+			final int feedBlockSize = in.readInt();
+			final long feedChecksum = in.readLong();
+			if (position > Files.size(feedPath) || feedChecksum != feedChecksum(feedPath, feedBlockSize)) {
+				throw new IOException("The report checkpoint " + checkpointPath
+						+ " was not written for the data feed " + feedPath);
+			}
+
+			final int dates = in.readInt();
+			final EpochDayMap<Map<TradeReport, IReport>> tradingReports = new EpochDayMap<>(dates);
+
+			for (int date = 0; date < dates; date++) {
+				final long epochDay = in.readLong();
+				final int reports = in.readInt();
+				final Map<TradeReport, IReport> dailyReport = new EnumMap<>(TradeReport.class);
+
+				for (int i = 0; i < reports; i++) {
+					final TradeReport tradeReport = TradeReport.valueOf(in.readUTF());
+					final byte kind = in.readByte();
+
+					if (kind == AMOUNT_REPORT) {
+						final TradeAmountReport report = new TradeAmountReport(tradeReport);
+						report.readFrom(in);
+						dailyReport.put(tradeReport, report);
+					} else if (kind == RANKING_REPORT) {
+						final TradeRankingReport report = new TradeRankingReport(tradeReport);
+						report.readFrom(in);
+						dailyReport.put(tradeReport, report);
+					} else {
+						throw new IOException("Invalid report in checkpoint: " + checkpointPath);
+					}
+				}
+				tradingReports.put(epochDay, dailyReport);
+			}
+			return new ReportCheckpoint(position, tradingReports);
+		}
+	}
+
+	/**
+	 * Calculates the checksum of the first bytes of the data feed
+	 */
+	private static long feedChecksum(final Path feedPath, final int blockSize) throws IOException {
+		final ByteBuffer block = ByteBuffer.allocate(blockSize);
+		try (FileChannel channel = FileChannel.open(feedPath, StandardOpenOption.READ)) {
+			while (block.hasRemaining() && channel.read(block) >= 0) {
+				// read until the block is filled or the end of the feed
+			}
+		}
+
+		final CRC32 checksum = new CRC32();
+		checksum.update(block.array(), 0, block.position());
+		return checksum.getValue();
+	}
+
+	/**
+	 * Writes a trade amount as the fixed point amount, followed by the
+	 * decimal amount if the amount could not be held as fixed point amount
+	 */
+	static void writeAmount(final DataOutput out, final long fixedPointAmount, final BigDecimal decimalAmount)
+			throws IOException {
+		out.writeLong(fixedPointAmount);
+		out.writeBoolean(decimalAmount != null);
+		if (decimalAmount != null) {
+			out.writeUTF(decimalAmount.toString());
+		}
+	}
+
+	static void writeAmount(final DataOutput out, final MoneyAccumulator amount) throws IOException {
+		// take a snapshot, the accumulator could be a striped accumulator
+		final MoneyAccumulator sum = new MoneyAccumulator();
+		sum.add(amount);
+
+		writeAmount(out, sum.getFixedPointAmount(), sum.isFixedPoint() ? null : sum.toBigDecimal());
+	}
+
+	/**
+	 * Adds a trade amount written by <code>writeAmount</code> to the
+	 * accumulator
+	 */
+	static void readAmount(final DataInput in, final MoneyAccumulator amount) throws IOException {
+		final long fixedPointAmount = in.readLong();
+
+		if (in.readBoolean()) {
+			amount.add(new BigDecimal(in.readUTF()));
+		} else {
+			amount.add(fixedPointAmount);
+		}
+	}
+}
@@ -0,0 +1,50 @@
+package com.company.report.handler.impl;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.Map;
+
+import com.company.report.entity.TradeReport;
+import com.company.report.handler.IReport;
+import com.company.report.handler.IReportExporter;
+import com.company.report.utils.DailyTradeReportingConstants;
+
+/**
+ * The exporter for the text format of the reports, as displayed in the
+ * console. The reports of each date are written using the print logic of the
+ * specific report.
+ *
+ * @author prejith.devarajan
+ *
+ */
+public class TextReportExporter implements IReportExporter {
+
+	private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern(
+			DailyTradeReportingConstants.INSTRUCTIONS_DATE_FORMAT);
+
+	@Override
+	public void exportHeader(final Appendable out) throws IOException {
+		out.append("                DAILY TRADE REPORTING ENGINE              \n")
+			.append("---------------------------------------------------------\n");
+	}
+
+	@Override
+	public void exportDailyReports(final LocalDate settlementDate, final Map<TradeReport, IReport> reportData,
+			final Appendable out) throws IOException {
+		out.append("\nDATE: ")
+			.append(settlementDate.format(DATE_FORMATTER))
+			.append("\n------------------\n");
+
+		// print various reports for the settlement date
+		for (IReport report : reportData.values()) {
+			report.printReport(out);
+		}
+	}
+
+	@Override
+	public void exportFooter(final Appendable out) throws IOException {
+		out.append("---------------------------------------------------------")
+			.append(System.lineSeparator());
+	}
+}
@@ -1,10 +1,19 @@
 package com.company.report.handler.impl;
 
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.math.BigDecimal;
+import java.util.Map;
 
+import com.company.report.entity.Instruction;
+import com.company.report.entity.InstructionStore;
 import com.company.report.entity.TradeReport;
 import com.company.report.handler.IReport;
 import com.company.report.utils.DailyTradeReportingConstants;
+import com.company.report.utils.FixedPointMath;
+import com.company.report.utils.MoneyAccumulator;
 
 /**
  * The report class which implements the logic for printing the trade amount
@@ -15,18 +24,42 @@ import com.company.report.utils.DailyTradeReportingConstants;
  * It is assumed that the print logic for incoming amount report and outgoing
  * amount report is same.
  *
+ * The report created for the concurrent aggregation sums up the trade amount
+ * in a <code>StripedMoneyAccumulator</code>, so that several threads could
+ * add the trade amounts at the same time.
+ *
  * @author prejith.devarajan
  *
  */
 public class TradeAmountReport implements IReport {
 	// The total amount for trade amount reports
-	private BigDecimal amount = new BigDecimal(0);
+	private final MoneyAccumulator amount;
 
 	// The trade report enum - to identify various trade amount reports
 	private final TradeReport tradeReport;
 
 	TradeAmountReport(TradeReport tradeReport) {
+		this(tradeReport, new MoneyAccumulator());
+	}
+
+	TradeAmountReport(TradeReport tradeReport, MoneyAccumulator amount) {
 		this.tradeReport = tradeReport;
+		this.amount = amount;
+	}
+
+	/**
+	 * Returns the trade amount report of the report type for the settlement date.
+	 * The report map holds the reports of any type, so the report is cast to
+	 * the trade amount report only here, for all the report generators.
+	 *
+	 * @param tradeReport
+	 *            The map which holds the report data for the settlement date
+	 * @param reportType
+	 *            The report type of the trade amount report
+	 * @return the report, null if the report is not already defined
+	 */
+	static TradeAmountReport getReport(final Map<TradeReport, IReport> tradeReport, final TradeReport reportType) {
+		return (TradeAmountReport) tradeReport.get(reportType);
 	}
 
 	/**
@@ -39,21 +72,113 @@ public class TradeAmountReport implements IReport {
 	public StringBuilder printReport() {
 		StringBuilder printBuilder = new StringBuilder();
 
-		printBuilder.append(this.tradeReport)
-					.append(":      $")
-					.append(getAmount())
-					.append("\n");
-
+		try {
+			printReport(printBuilder);
+		} catch (IOException e) {
+			// a StringBuilder does not throw IOException
+			throw new UncheckedIOException(e);
+		}
 		return printBuilder;
 	}
 
+	/**
+	 * Writes the text format of the report to the output
+	 *
+	 * @param out
+	 * 			the output for the text of the report
+	 * @throws IOException
+	 */
+	@Override
+	public void printReport(Appendable out) throws IOException {
+		out.append(this.tradeReport.toString())
+			.append(":      $")
+			.append(getAmount().toString())
+			.append("\n");
+	}
+
+	/**
+	 * Hands over the total trade amount as a single row
+	 *
+	 * @param rows
+	 * 			the consumer for the row of the report
+	 * @throws IOException
+	 */
+	@Override
+	public void exportRows(RowConsumer rows) throws IOException {
+		rows.accept(0, null, getAmount());
+	}
+
 	/**
 	 * Sums up all the incoming trade amount
 	 *
-	 * @param amount
+	 * @param instruction
+	 * 				The trade instruction
+	 */
+	void addAmount(final Instruction instruction) {
+		this.amount.add(instruction);
+	}
+
+	/**
+	 * Sums up the trade amount of an instruction in the columnar instruction
+	 * store
+	 *
+	 * @param instructions
+	 * @param row
+	 * 				The row of the trade instruction
+	 */
+	void addAmount(final InstructionStore instructions, final int row) {
+		addAmount(instructions, row, instructions.getFixedPointTradeAmount(row));
+	}
+
+	/**
+	 * Sums up the trade amount of an instruction in the columnar instruction
+	 * store, with the fixed point trade amount already calculated for the row
+	 *
+	 * @param instructions
+	 * @param row
+	 * 				The row of the trade instruction
+	 * @param tradeAmount
+	 * 				The fixed point trade amount of the row
+	 */
+	void addAmount(final InstructionStore instructions, final int row, final long tradeAmount) {
+		if (tradeAmount == FixedPointMath.OVERFLOW) {
+			this.amount.add(instructions.getInstruction(row).getTradeAmount());
+		} else {
+			this.amount.add(tradeAmount);
+		}
+	}
+
+	/**
+	 * Adds the total trade amount of the other trade amount report. The merge
+	 * takes any report by the contract of <code>IReport</code>, but the reports
+	 * merged are of the same report type, so the other report is always a trade
+	 * amount report.
+	 *
+	 * @param report
+	 */
+	@Override
+	public void merge(final IReport report) {
+		this.amount.add(((TradeAmountReport) report).amount);
+	}
+
+	/**
+	 * Writes the total trade amount, eg: to a checkpoint of the reports
+	 *
+	 * @param out
+	 * @throws IOException
+	 */
+	void writeTo(final DataOutput out) throws IOException {
+		ReportCheckpoint.writeAmount(out, this.amount);
+	}
+
+	/**
+	 * Adds the total trade amount written by <code>writeTo</code>
+	 *
+	 * @param in
+	 * @throws IOException
 	 */
-	void addAmount(final BigDecimal amount) {
-		this.amount = this.amount.add(amount);
+	void readFrom(final DataInput in) throws IOException {
+		ReportCheckpoint.readAmount(in, this.amount);
 	}
 
 	/**
@@ -63,6 +188,6 @@ public class TradeAmountReport implements IReport {
 	 * @return total incoming trade amount
 	 */
 	public BigDecimal getAmount() {
-		return this.amount.setScale(DailyTradeReportingConstants.CURRENCY_DECIMAL_SCALE_VALUE);
+		return this.amount.toBigDecimal().setScale(DailyTradeReportingConstants.CURRENCY_DECIMAL_SCALE_VALUE);
 	}
 }
@@ -1,37 +1,119 @@
 package com.company.report.handler.impl;
 
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.concurrent.ConcurrentHashMap;
 
+import com.company.report.entity.Instruction;
+import com.company.report.entity.InstructionStore;
 import com.company.report.entity.TradeReport;
 import com.company.report.handler.IReport;
 import com.company.report.utils.CommonUtils;
+import com.company.report.utils.DailyTradeReportingConstants;
+import com.company.report.utils.EntityAmounts;
+import com.company.report.utils.EntityDictionary;
+import com.company.report.utils.FixedPointMath;
+import com.company.report.utils.MoneyAccumulator;
+import com.company.report.utils.RankingTree;
+import com.company.report.utils.ReportMetrics;
+import com.company.report.utils.ReportMetrics.Stage;
+import com.company.report.utils.StripedMoneyAccumulator;
 
 /**
  * The report class which implements the logic for printing the trade ranking
  * reports. The class helps in calculating the ranking for all trade entities.
  * The class handles the incoming and outgoing ranking reports.
  *
- * The report data is held as java.util.Map which has the entity as key and the
- * trade amount for the entity as value
+ * The report data is held as <code>EntityAmounts</code> - a primitive map
+ * which has the identifier of the entity in the <code>EntityDictionary</code>
+ * as key and the trade amount for the entity as value
  *
  * It is assumed that the print logic for incoming ranking report and outgoing
  * ranking report is same.
  *
+ * The printed ranking could be limited to the top entities using the system
+ * property <code>report.ranking.top</code>, the top entities are selected
+ * without sorting all the entities. The ranking is remembered until a new
+ * trade amount is added to the report.
+ *
+ * For the live leaderboards the ranking could be maintained while the trade
+ * amounts are added using the system property
+ * <code>report.ranking.incremental</code>. Each added trade amount then
+ * updates a ranking tree in O(log n), and the rank of an entity or the top
+ * entities are read from the tree without sorting.
+ *
+ * The report created for the concurrent aggregation holds the trade amounts in
+ * a <code>ConcurrentHashMap</code> of <code>StripedMoneyAccumulator</code>, so
+ * that several threads could add the trade amounts at the same time. The
+ * ranking of a concurrent report is neither remembered nor maintained while
+ * the trade amounts are added.
+ *
  * @author prejith.devarajan
  *
  */
 public class TradeRankingReport implements IReport {
-	// The map which holds the trade amount for each entity
-	private Map<String, BigDecimal> entityReport = new HashMap<>();
+	// The number of top entities to be printed, all the entities if 0
+	private static final int PRINT_RANKING_SIZE = Integer.getInteger(
+			DailyTradeReportingConstants.RANKING_TOP_PROPERTY, 0);
+
+	// Remember the ranking until a new trade amount is added
+	private static final boolean CACHE_RANKING = Boolean.parseBoolean(System.getProperty(
+			DailyTradeReportingConstants.RANKING_CACHE_PROPERTY, "true"));
+
+	// Maintain the ranking while the trade amounts are added
+	private static final boolean INCREMENTAL_RANKING = Boolean.getBoolean(
+			DailyTradeReportingConstants.RANKING_INCREMENTAL_PROPERTY);
+
+	// The map which holds the trade amount for each entity identifier, null if concurrent
+	private final EntityAmounts entityReport;
+
+	// The map which holds the trade amount for each entity, null if not concurrent
+	private final Map<String, MoneyAccumulator> concurrentEntityReport;
+
+	// The last ranking and the number of top entities in it, null if a trade amount is added since
+	private Map<String, BigDecimal> ranking;
+
+	private int rankingSize;
+
+	// The ranking maintained while the trade amounts are added, null if not incremental
+	private final RankingTree<String> rankingTree;
 
 	// The trade report enum - to identify various trade ranking reports
 	private final TradeReport tradeReport;
 
 	TradeRankingReport(TradeReport tradeReport) {
+		this(tradeReport, false);
+	}
+
+	TradeRankingReport(TradeReport tradeReport, boolean concurrent) {
 		this.tradeReport = tradeReport;
+		this.entityReport = concurrent ? null : new EntityAmounts();
+		this.concurrentEntityReport = concurrent ? new ConcurrentHashMap<>() : null;
+		this.rankingTree = INCREMENTAL_RANKING && !concurrent ? new RankingTree<>() : null;
+	}
+
+	/**
+	 * Returns the trade ranking report of the report type for the settlement
+	 * date. The report map holds the reports of any type, so the report is cast
+	 * to the trade ranking report only here, for all the report generators.
+	 *
+	 * @param tradeReport
+	 *            The map which holds the report data for the settlement date
+	 * @param reportType
+	 *            The report type of the trade ranking report
+	 * @return the report, null if the report is not already defined
+	 */
+	static TradeRankingReport getReport(final Map<TradeReport, IReport> tradeReport, final TradeReport reportType) {
+		return (TradeRankingReport) tradeReport.get(reportType);
 	}
 
 	/**
@@ -44,28 +126,61 @@ public class TradeRankingReport implements IReport {
 	public StringBuilder printReport() {
 		StringBuilder printBuilder = new StringBuilder();
 
-		printBuilder.append(this.tradeReport)
-					.append(":")
-					.append(entityReport.size() == 0 ? "     NA" : "")
-					.append("\n");
+		try {
+			printReport(printBuilder);
+		} catch (IOException e) {
+			// a StringBuilder does not throw IOException
+			throw new UncheckedIOException(e);
+		}
+		return printBuilder;
+	}
+
+	/**
+	 * Writes the text format of the report to the output, one entity at a
+	 * time, so the text of a large ranking is never held as a whole
+	 *
+	 * @param out
+	 * 			the output for the text of the report
+	 * @throws IOException
+	 */
+	@Override
+	public void printReport(Appendable out) throws IOException {
+		out.append(this.tradeReport.toString())
+			.append(":")
+			.append(getEntityCount() == 0 ? "     NA" : "")
+			.append("\n");
 
-		if(entityReport.size() > 0) {
-			printBuilder.append("\t\t\t    Rank  |\tEntity\n")
-						.append("\t\t\t    ------|--------------------\n");
+		if(getEntityCount() > 0) {
+			out.append("\t\t\t    Rank  |\tEntity\n")
+				.append("\t\t\t    ------|--------------------\n");
 		}
 
 		int rank = 0;
-		for(Entry<String, BigDecimal> entityEntry : getRanking().entrySet()) {
-			printBuilder.append("\t\t\t    ")
-						.append(++rank)
-						.append("     |\t")
-						.append(entityEntry.getKey())
-						.append(" ($")
-						.append(entityEntry.getValue().setScale(3))
-						.append(")\n");
+		for(Entry<String, BigDecimal> entityEntry : getPrintRanking().entrySet()) {
+			out.append("\t\t\t    ")
+				.append(String.valueOf(++rank))
+				.append("     |\t")
+				.append(entityEntry.getKey())
+				.append(" ($")
+				.append(entityEntry.getValue().setScale(3).toString())
+				.append(")\n");
 		}
+	}
 
-		return printBuilder;
+	/**
+	 * Hands over a row for each entity of the printed ranking, with the trade
+	 * amount in the scale of the currency
+	 *
+	 * @param rows
+	 * 			the consumer for each row of the report
+	 * @throws IOException
+	 */
+	@Override
+	public void exportRows(RowConsumer rows) throws IOException {
+		int rank = 0;
+		for(Entry<String, BigDecimal> entityEntry : getPrintRanking().entrySet()) {
+			rows.accept(++rank, entityEntry.getKey(), entityEntry.getValue().setScale(3));
+		}
 	}
 
 	/**
@@ -73,19 +188,175 @@ public class TradeRankingReport implements IReport {
 	 * each entity is stored as a java.util.Map which contains entity as the key
 	 * and the trade amount for each entity as the value.
 	 *
-	 * @param entity
-	 * 				The entity for the trade instruction
-	 * @param amount
-	 * 				The trade amount for the entity in the instruction
+	 * @param instruction
+	 * 				The trade instruction with the entity and the trade amount
 	 */
-	void addEntityAmount(final String entity, final BigDecimal amount) {
-		final BigDecimal entityAmount = entityReport.get(entity);
+	void addEntityAmount(final Instruction instruction) {
+		if(concurrentEntityReport != null) {
+			getConcurrentEntityAmount(instruction.getEntity()).add(instruction);
+			return;
+		}
 
-		if(entityAmount == null) {
-			entityReport.put(entity, amount);
-		} else {
-			entityReport.put(entity, entityAmount.add(amount));
+		entityReport.add(instruction);
+		if(rankingTree != null) {
+			updateRanking(instruction.getEntityId());
+		}
+		ranking = null;
+	}
+
+	/**
+	 * Sums up the trade amount for the entity of an instruction in the
+	 * columnar instruction store.
+	 *
+	 * @param instructions
+	 * @param row
+	 * 				The row of the trade instruction
+	 */
+	void addEntityAmount(final InstructionStore instructions, final int row) {
+		addEntityAmount(instructions, row, instructions.getFixedPointTradeAmount(row));
+	}
+
+	/**
+	 * Sums up the trade amount for the entity of an instruction in the
+	 * columnar instruction store, with the fixed point trade amount already
+	 * calculated for the row.
+	 *
+	 * @param instructions
+	 * @param row
+	 * 				The row of the trade instruction
+	 * @param tradeAmount
+	 * 				The fixed point trade amount of the row
+	 */
+	void addEntityAmount(final InstructionStore instructions, final int row, final long tradeAmount) {
+		if(concurrentEntityReport != null || tradeAmount == FixedPointMath.OVERFLOW) {
+			addEntityAmount(instructions.getInstruction(row));
+			return;
+		}
+
+		final int entityId = instructions.getEntityId(row);
+		entityReport.add(entityId, tradeAmount);
+		if(rankingTree != null) {
+			updateRanking(entityId);
+		}
+		ranking = null;
+	}
+
+	/**
+	 * Returns the accumulator for the trade amount of the entity in the
+	 * concurrent report, a new accumulator is added if the entity does not
+	 * have any trade amount yet.
+	 */
+	private MoneyAccumulator getConcurrentEntityAmount(final String entity) {
+		final MoneyAccumulator entityAmount = concurrentEntityReport.get(entity);
+
+		return entityAmount != null ? entityAmount
+				: concurrentEntityReport.computeIfAbsent(entity, key -> new StripedMoneyAccumulator());
+	}
+
+	private void updateRanking(final int entityId) {
+		rankingTree.update(EntityDictionary.getInstance().getEntity(entityId),
+				entityReport.getFixedPointAmount(entityId), entityReport.getDecimalAmount(entityId));
+	}
+
+	private int getEntityCount() {
+		return entityReport != null ? entityReport.size() : concurrentEntityReport.size();
+	}
+
+	/**
+	 * Adds the trade amount of each entity in the other trade ranking report.
+	 * Both the reports are expected to be either concurrent or not. The reports
+	 * merged are of the same report type, so the other report is always a trade
+	 * ranking report.
+	 *
+	 * @param report
+	 */
+	@Override
+	public void merge(final IReport report) {
+		final TradeRankingReport rankingReport = (TradeRankingReport) report;
+
+		if(concurrentEntityReport != null) {
+			rankingReport.concurrentEntityReport.forEach((entity, entityAmount) ->
+				getConcurrentEntityAmount(entity).add(entityAmount)
+			);
+			return;
+		}
+
+		entityReport.add(rankingReport.entityReport);
+		if(rankingTree != null) {
+			rankingReport.entityReport.forEachEntityId(this::updateRanking);
+		}
+		ranking = null;
+	}
+
+	/**
+	 * Writes the trade amount of each entity, eg: to a checkpoint of the
+	 * reports
+	 *
+	 * @param out
+	 * @throws IOException
+	 */
+	void writeTo(final DataOutput out) throws IOException {
+		if(concurrentEntityReport != null) {
+			final List<Entry<String, MoneyAccumulator>> entityAmounts = new ArrayList<>(concurrentEntityReport.entrySet());
+
+			out.writeInt(entityAmounts.size());
+			for(Entry<String, MoneyAccumulator> entityAmount : entityAmounts) {
+				out.writeUTF(entityAmount.getKey());
+				ReportCheckpoint.writeAmount(out, entityAmount.getValue());
+			}
+			return;
+		}
+
+		final int[] entityIds = entityReport.getEntityIds();
+		out.writeInt(entityIds.length);
+		for(int entityId : entityIds) {
+			final BigDecimal decimalAmount = entityReport.getDecimalAmount(entityId);
+
+			out.writeUTF(EntityDictionary.getInstance().getEntity(entityId));
+			ReportCheckpoint.writeAmount(out, entityReport.getFixedPointAmount(entityId), decimalAmount);
+		}
+	}
+
+	/**
+	 * Adds the trade amount of each entity written by <code>writeTo</code>
+	 *
+	 * @param in
+	 * @throws IOException
+	 */
+	void readFrom(final DataInput in) throws IOException {
+		final int entities = in.readInt();
+
+		for(int i = 0; i < entities; i++) {
+			final String entity = in.readUTF();
+			final MoneyAccumulator entityAmount = new MoneyAccumulator();
+			ReportCheckpoint.readAmount(in, entityAmount);
+
+			if(concurrentEntityReport != null) {
+				getConcurrentEntityAmount(entity).add(entityAmount);
+				continue;
+			}
+
+			final int entityId = EntityDictionary.getInstance().getId(entity);
+			if(entityAmount.isFixedPoint()) {
+				entityReport.add(entityId, entityAmount.getFixedPointAmount());
+			} else {
+				entityReport.add(entityId, entityAmount.toBigDecimal());
+			}
+			if(rankingTree != null) {
+				updateRanking(entityId);
+			}
 		}
+		ranking = null;
+	}
+
+	/**
+	 * The ranking to be printed or exported for the report, only the top
+	 * entities if the system property <code>report.ranking.top</code> is set
+	 *
+	 * @return the ranking report
+	 */
+	public Map<String, BigDecimal> getPrintRanking() {
+		return getRanking(PRINT_RANKING_SIZE);
 	}
 
 	/**
@@ -95,6 +366,70 @@ public class TradeRankingReport implements IReport {
 	 * @return the ranking report
 	 */
 	public Map<String, BigDecimal> getRanking() {
-		return CommonUtils.sortMapByValue(this.entityReport);
+		return getRanking(0);
+	}
+
+	/**
+	 * The returned map contains the top entities by the trade amount. The map
+	 * has the entity name as key and trade amount as value, which is sorted by
+	 * the trade amount. The top entities are selected without sorting all the
+	 * entities.
+	 *
+	 * @param top
+	 *            the number of top entities, all the entities if 0
+	 * @return the ranking report for the top entities
+	 */
+	public Map<String, BigDecimal> getRanking(final int top) {
+		final int size = top <= 0 || top >= getEntityCount() ? 0 : top;
+		if (ranking != null && rankingSize == size) {
+			return ranking;
+		}
+
+		final long start = ReportMetrics.start();
+		if (rankingTree != null) {
+			final Map<String, BigDecimal> entityRanking = Collections.unmodifiableMap(rankingTree.getTop(size));
+			ReportMetrics.record(Stage.RANKING, start);
+			return entityRanking;
+		}
+
+		final Map<String, BigDecimal> entityAmounts = new HashMap<>();
+		if (entityReport != null) {
+			entityReport.forEach(entityAmounts::put);
+		} else {
+			concurrentEntityReport.forEach((entity, entityAmount) -> entityAmounts.put(entity, entityAmount.toBigDecimal()));
+		}
+
+		final Map<String, BigDecimal> entityRanking = Collections.unmodifiableMap(size == 0
+				? CommonUtils.sortMapByValue(entityAmounts)
+				: CommonUtils.topByValue(entityAmounts, size));
+		if (CACHE_RANKING && entityReport != null) {
+			ranking = entityRanking;
+			rankingSize = size;
+		}
+		ReportMetrics.record(Stage.RANKING, start);
+		return entityRanking;
+	}
+
+	/**
+	 * Returns the rank of the entity by the trade amount, the entity with the
+	 * highest trade amount is ranked 1. The rank is read from the ranking tree
+	 * if the ranking is maintained while the trade amounts are added.
+	 *
+	 * @param entity
+	 * @return the rank of the entity, 0 if the entity does not have any trade amount
+	 */
+	public int getRank(final String entity) {
+		if (rankingTree != null) {
+			return rankingTree.getRank(entity);
+		}
+
+		int rank = 0;
+		for (String rankedEntity : getRanking().keySet()) {
+			rank++;
+			if (rankedEntity.equals(entity)) {
+				return rank;
+			}
+		}
+		return 0;
 	}
 }
@@ -21,4 +21,16 @@ public interface IBusinessDays {
 	 * @return actual settlement date based on business days
 	 */
 	LocalDate findActualSettlementDate(final LocalDate date);
+
+	/**
+	 * Find the actual settlement date based on the business days, with the
+	 * dates given as epoch days.
+	 *
+	 * @param epochDay
+	 *            the epoch day of the settlement date
+	 * @return the epoch day of the actual settlement date
+	 */
+	default long findActualSettlementDay(final long epochDay) {
+		return findActualSettlementDate(LocalDate.ofEpochDay(epochDay)).toEpochDay();
+	}
 }
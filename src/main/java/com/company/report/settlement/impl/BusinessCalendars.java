@@ -0,0 +1,118 @@
+package com.company.report.settlement.impl;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+import com.company.report.settlement.IBusinessDays;
+import com.company.report.utils.CurrencyRegistry;
+
+/**
+ * The class holds the business days calendars and the calendar for each
+ * currency. A currency which is not mapped to any calendar uses the default
+ * calendar.
+ *
+ * The calendars are configured in the business calendar file and loaded by the
+ * <code>BusinessCalendarReader</code>, so a new currency or a new calendar
+ * could be added without code changes.
+ *
+ * The calendar could also be looked up by the identifier of the currency in
+ * the <code>CurrencyRegistry</code>, which is a single array read once the
+ * currency is seen.
+ *
+ * @author prejith.devarajan
+ *
+ */
+public class BusinessCalendars {
+
+	// The calendars by the calendar identifier
+	private final Map<String, IBusinessDays> calendars;
+
+	// The calendar for each currency code, the currency codes are in upper case
+	private final Map<String, IBusinessDays> currencyCalendars = new HashMap<>();
+
+	// The calendar for the currencies which are not mapped to any calendar
+	private final IBusinessDays defaultCalendar;
+
+	// The calendar for each currency identifier, null if the currency is not yet seen
+	private volatile IBusinessDays[] calendarsByCurrencyId = new IBusinessDays[16];
+
+	/**
+	 * @param calendars
+	 *            the calendars by the calendar identifier
+	 * @param currencyCalendars
+	 *            the calendar identifier for each currency code
+	 * @param defaultCalendar
+	 *            the identifier of the default calendar
+	 */
+	public BusinessCalendars(final Map<String, IBusinessDays> calendars, final Map<String, String> currencyCalendars,
+			final String defaultCalendar) {
+		this.calendars = Collections.unmodifiableMap(new HashMap<>(calendars));
+		this.defaultCalendar = getCalendar(defaultCalendar);
+
+		currencyCalendars.forEach((currency, calendar) ->
+			this.currencyCalendars.put(currency.toUpperCase(Locale.ROOT), getCalendar(calendar))
+		);
+	}
+
+	/**
+	 * Identifies the calendar for the currency. The currency codes are
+	 * compared ignoring the case.
+	 *
+	 * @param currency
+	 * @return the calendar for the currency
+	 */
+	public IBusinessDays getBusinessDays(final String currency) {
+		IBusinessDays calendar = currencyCalendars.get(currency);
+
+		if (calendar == null && currency != null) {
+			calendar = currencyCalendars.get(currency.toUpperCase(Locale.ROOT));
+		}
+		return calendar == null ? defaultCalendar : calendar;
+	}
+
+	/**
+	 * Identifies the calendar for the currency identifier.
+	 *
+	 * @param currencyId
+	 *            the identifier of the currency in the
+	 *            <code>CurrencyRegistry</code>
+	 * @return the calendar for the currency
+	 */
+	public IBusinessDays getBusinessDays(final int currencyId) {
+		final IBusinessDays[] calendars = calendarsByCurrencyId;
+
+		if (currencyId < calendars.length && calendars[currencyId] != null) {
+			return calendars[currencyId];
+		}
+		return resolve(currencyId);
+	}
+
+	private synchronized IBusinessDays resolve(final int currencyId) {
+		IBusinessDays[] calendars = calendarsByCurrencyId;
+
+		if (currencyId >= calendars.length) {
+			calendars = Arrays.copyOf(calendars, Math.max(calendars.length * 2, currencyId + 1));
+		}
+		final IBusinessDays calendar = getBusinessDays(CurrencyRegistry.getInstance().getCurrency(currencyId));
+		calendars[currencyId] = calendar;
+		calendarsByCurrencyId = calendars;
+		return calendar;
+	}
+
+	/**
+	 * @param calendar
+	 *            the calendar identifier
+	 * @return the calendar for the identifier
+	 */
+	public IBusinessDays getCalendar(final String calendar) {
+		final IBusinessDays businessDays = calendars.get(calendar);
+
+		if (businessDays == null) {
+			throw new IllegalArgumentException("Unknown business calendar: " + calendar);
+		}
+		return businessDays;
+	}
+}
@@ -26,8 +26,8 @@ public abstract class BusinessDays implements IBusinessDays {
 	protected abstract void identifyBusinessDays();
 
 	/**
-	 * The method checks for a date if it comes under a business day. If not recursively
-	 * invoke the same until a date on a business day is identified.
+	 * The method checks for a date if it comes under a business day. If not move on to
+	 * the next day until a date on a business day is identified.
 	 *
 	 * @param date - the date to check if it falls on a business day
 	 * @return LocalDate
@@ -35,13 +35,12 @@ public abstract class BusinessDays implements IBusinessDays {
 	 */
 	@Override
 	public LocalDate findActualSettlementDate(final LocalDate date) {
-		final DayOfWeek dayOfSettlementDate = date.getDayOfWeek();
+		LocalDate settlementDate = date;
 
-		if(businessDays.contains(dayOfSettlementDate)) {
-			// return the date if it is a business day
-			return date;
-		} else {
-			return findActualSettlementDate(date.plusDays(1));
+		// return the date if it is a business day
+		while(!businessDays.contains(settlementDate.getDayOfWeek())) {
+			settlementDate = settlementDate.plusDays(1);
 		}
+		return settlementDate;
 	}
 }
@@ -0,0 +1,91 @@
+package com.company.report.settlement.impl;
+
+import java.time.LocalDate;
+
+import com.company.report.settlement.IBusinessDays;
+
+/**
+ * The class remembers the actual settlement date identified by another
+ * business days implementation. The settlement dates are held in an array
+ * indexed by the epoch day of the instructed settlement date, for a horizon of
+ * days starting from a given date. Within the horizon the actual settlement
+ * date is a single array read once the date is seen, dates outside the horizon
+ * are handed over to the business days implementation.
+ *
+ * The array is filled lazily and could be shared by several threads. A
+ * <code>LocalDate</code> is immutable, so a thread either sees the date
+ * identified by another thread or identifies the same date by itself.
+ *
+ * @author prejith.devarajan
+ *
+ */
+public class CachedBusinessDays implements IBusinessDays {
+
+	// The business days implementation to identify the actual settlement date
+	private final IBusinessDays businessDays;
+
+	// The epoch day of the first date in the horizon
+	private final long fromEpochDay;
+
+	// The actual settlement date for each day in the horizon, null if not yet identified
+	private final LocalDate[] settlementDates;
+
+	/**
+	 * @param businessDays
+	 *            the business days implementation to identify the actual
+	 *            settlement date
+	 * @param from
+	 *            the first date in the horizon
+	 * @param days
+	 *            the number of days in the horizon
+	 */
+	public CachedBusinessDays(final IBusinessDays businessDays, final LocalDate from, final int days) {
+		this.businessDays = businessDays;
+		this.fromEpochDay = from.toEpochDay();
+		this.settlementDates = new LocalDate[days];
+	}
+
+	/**
+	 * Find the actual settlement date based on the business days. The date
+	 * identified for a day within the horizon is remembered for the next
+	 * instructions with the same settlement date.
+	 *
+	 * @param date
+	 * @return actual settlement date based on business days
+	 */
+	@Override
+	public LocalDate findActualSettlementDate(final LocalDate date) {
+		final long day = date.toEpochDay() - fromEpochDay;
+
+		if (day < 0 || day >= settlementDates.length) {
+			// the date is outside the horizon
+			return businessDays.findActualSettlementDate(date);
+		}
+
+		LocalDate settlementDate = settlementDates[(int) day];
+		if (settlementDate == null) {
+			settlementDate = businessDays.findActualSettlementDate(date);
+			settlementDates[(int) day] = settlementDate;
+		}
+		return settlementDate;
+	}
+
+	/**
+	 * Find the actual settlement date based on the business days, with the
+	 * dates given as epoch days. No <code>LocalDate</code> is created once the
+	 * actual settlement date for the day is remembered.
+	 *
+	 * @param epochDay
+	 *            the epoch day of the settlement date
+	 * @return the epoch day of the actual settlement date
+	 */
+	@Override
+	public long findActualSettlementDay(final long epochDay) {
+		final long day = epochDay - fromEpochDay;
+
+		if (day >= 0 && day < settlementDates.length && settlementDates[(int) day] != null) {
+			return settlementDates[(int) day].toEpochDay();
+		}
+		return findActualSettlementDate(LocalDate.ofEpochDay(epochDay)).toEpochDay();
+	}
+}
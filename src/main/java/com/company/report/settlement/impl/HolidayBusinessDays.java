@@ -0,0 +1,134 @@
+package com.company.report.settlement.impl;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.Set;
+
+import com.company.report.settlement.IBusinessDays;
+
+/**
+ * The class implements the logic to identify the actual settlement date for a
+ * calendar which has public holidays in addition to the weekend days. If an
+ * instructed settlement date falls on a weekend or a holiday, then the
+ * settlement date should be changed to the next business day.
+ *
+ * The business days of the calendar are held as a bitset over a range of
+ * dates - one bit for each day, set if the day is a business day. Along with
+ * the bitset a skip table holds the number of days to the next business day
+ * for each day, so the next business day is found with a single lookup.
+ *
+ * A date outside the range is checked only for the weekend days.
+ *
+ * @author prejith.devarajan
+ *
+ */
+public class HolidayBusinessDays implements IBusinessDays {
+
+	// The skip table entry for a day which is too far away from the next business day
+	private static final byte FAR_AWAY = -1;
+
+	// The business days of the week
+	private final Set<DayOfWeek> businessDaysOfWeek;
+
+	// The epoch day of the first date in the range
+	private final long fromEpochDay;
+
+	// The number of days in the range
+	private final int days;
+
+	// One bit for each day in the range, set if the day is a business day
+	private final long[] businessDayBits;
+
+	// The number of days to the next business day for each day in the range
+	private final byte[] daysToBusinessDay;
+
+	/**
+	 * @param businessDaysOfWeek
+	 *            the business days of the week
+	 * @param holidays
+	 *            the public holidays of the calendar
+	 * @param from
+	 *            the first date in the range, inclusive
+	 * @param to
+	 *            the last date in the range, inclusive
+	 */
+	public HolidayBusinessDays(final Set<DayOfWeek> businessDaysOfWeek, final Set<LocalDate> holidays,
+			final LocalDate from, final LocalDate to) {
+		if (businessDaysOfWeek.isEmpty()) {
+			throw new IllegalArgumentException("A calendar requires at least one business day of the week");
+		}
+		this.businessDaysOfWeek = businessDaysOfWeek;
+		this.fromEpochDay = from.toEpochDay();
+		this.days = (int) (to.toEpochDay() - fromEpochDay + 1);
+		this.businessDayBits = new long[(days + Long.SIZE - 1) / Long.SIZE];
+		this.daysToBusinessDay = new byte[days];
+
+		LocalDate date = from;
+		for (int day = 0; day < days; day++) {
+			if (businessDaysOfWeek.contains(date.getDayOfWeek()) && !holidays.contains(date)) {
+				businessDayBits[day / Long.SIZE] |= 1L << day;
+			}
+			date = date.plusDays(1);
+		}
+
+		// fill the skip table backwards, the last day could only be skipped by walking
+		int next = FAR_AWAY;
+		for (int day = days - 1; day >= 0; day--) {
+			if (isBusinessDay(day)) {
+				next = 0;
+			} else if (next != FAR_AWAY) {
+				next = next < Byte.MAX_VALUE ? next + 1 : FAR_AWAY;
+			}
+			daysToBusinessDay[day] = (byte) next;
+		}
+	}
+
+	/**
+	 * Find the actual settlement date based on the business days and the
+	 * holidays. If an instructed settlement date falls on a weekend or a
+	 * holiday, then the settlement date is changed to the next business day.
+	 *
+	 * @param date
+	 * @return actual settlement date based on business days
+	 */
+	@Override
+	public LocalDate findActualSettlementDate(final LocalDate date) {
+		final long day = date.toEpochDay() - fromEpochDay;
+
+		if (day >= 0 && day < days) {
+			final int skip = daysToBusinessDay[(int) day];
+			if (skip == 0) {
+				return date;
+			} else if (skip > 0) {
+				return date.plusDays(skip);
+			}
+		}
+
+		// outside the range or too far away - walk to the next business day
+		LocalDate settlementDate = date;
+		while (!isBusinessDay(settlementDate)) {
+			settlementDate = settlementDate.plusDays(1);
+		}
+		return settlementDate;
+	}
+
+	/**
+	 * Checks if the date is a business day. A date outside the range of the
+	 * calendar is checked only for the weekend days.
+	 *
+	 * @param date
+	 * @return true if the date is a business day
+	 */
+	public boolean isBusinessDay(final LocalDate date) {
+		final long day = date.toEpochDay() - fromEpochDay;
+
+		if (day >= 0 && day < days) {
+			return isBusinessDay((int) day);
+		}
+		return businessDaysOfWeek.contains(date.getDayOfWeek());
+	}
+
+	private boolean isBusinessDay(final int day) {
+		return (businessDayBits[day / Long.SIZE] & (1L << day)) != 0;
+	}
+}
@@ -10,7 +10,7 @@ import java.time.DayOfWeek;
  */
 public class MiddleEastBusinessDays extends BusinessDays {
 
-	private static MiddleEastBusinessDays instance = null;
+	private static final MiddleEastBusinessDays instance = new MiddleEastBusinessDays();
 
 	MiddleEastBusinessDays() {
 		super();
@@ -29,9 +29,6 @@ public class MiddleEastBusinessDays extends BusinessDays {
 	}
 
     public static MiddleEastBusinessDays getInstance() {
-        if (instance == null) {
-            instance = new MiddleEastBusinessDays();
-        }
         return instance;
     }
 }
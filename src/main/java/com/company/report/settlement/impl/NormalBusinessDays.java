@@ -10,7 +10,7 @@ import java.time.DayOfWeek;
  */
 public class NormalBusinessDays extends BusinessDays {
 
-	private static NormalBusinessDays instance = null;
+	private static final NormalBusinessDays instance = new NormalBusinessDays();
 
 	NormalBusinessDays() {
 		super();
@@ -29,9 +29,6 @@ public class NormalBusinessDays extends BusinessDays {
 	}
 
     public static NormalBusinessDays getInstance() {
-        if (instance == null) {
-            instance = new NormalBusinessDays();
-        }
         return instance;
     }
 }
@@ -0,0 +1,185 @@
+package com.company.report.utils;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.Writer;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * The writer which hands over the text of the reports to a separate writer
+ * thread. The text is collected in chunks and each full chunk is queued for
+ * the writer thread, which writes it to the sink, eg: the console. The
+ * reports are then rendered while the earlier reports are written, instead
+ * of waiting for each write to the sink.
+ *
+ * The reports are rendered once the whole data feed is aggregated, as an
+ * instruction for any settlement date could be found at the end of the
+ * feed. So the writer thread does not overlap the output with the
+ * aggregation.
+ *
+ * The number of chunks queued is bounded, so the text held in memory does not
+ * depend on the size of the reports. The rendering waits once the queue is
+ * full.
+ *
+ * The sink is flushed when the writer is closed, but it is not closed - the
+ * sink is owned by the caller.
+ *
+ * NOTE: The class is not thread safe, the text is expected to be written by a
+ * single thread.
+ *
+ * @author prejith.devarajan
+ *
+ */
+public class AsyncReportWriter extends Writer {
+
+	// The number of characters collected before the chunk is queued
+	private static final int CHUNK_SIZE = 64 * 1024;
+
+	// The number of chunks which could be queued for the writer thread
+	private static final int QUEUED_CHUNKS = 16;
+
+	// The chunk queued to stop the writer thread
+	private static final String END = new String();
+
+	private final Writer sink;
+
+	private final BlockingQueue<String> chunks = new ArrayBlockingQueue<>(QUEUED_CHUNKS);
+
+	private final Thread writerThread;
+
+	private StringBuilder chunk = new StringBuilder(CHUNK_SIZE);
+
+	// The failure of the writer thread, reported to the next call on the writer
+	private volatile IOException failure;
+
+	private boolean closed;
+
+	/**
+	 * @param sink
+	 *            the output to which the text is written by the writer thread
+	 */
+	public AsyncReportWriter(final Writer sink) {
+		this.sink = sink;
+		this.writerThread = new Thread(this::writeChunks, "report-writer");
+		this.writerThread.setDaemon(true);
+		this.writerThread.start();
+	}
+
+	@Override
+	public void write(final char[] text, final int offset, final int length) throws IOException {
+		ensureOpen();
+		chunk.append(text, offset, length);
+		if (chunk.length() >= CHUNK_SIZE) {
+			queueChunk();
+		}
+	}
+
+	@Override
+	public void write(final String text, final int offset, final int length) throws IOException {
+		ensureOpen();
+		chunk.append(text, offset, offset + length);
+		if (chunk.length() >= CHUNK_SIZE) {
+			queueChunk();
+		}
+	}
+
+	@Override
+	public Writer append(final CharSequence text) throws IOException {
+		ensureOpen();
+		chunk.append(text);
+		if (chunk.length() >= CHUNK_SIZE) {
+			queueChunk();
+		}
+		return this;
+	}
+
+	/**
+	 * Queues the text written so far for the writer thread. The method does
+	 * not wait for the text to be written to the sink.
+	 */
+	@Override
+	public void flush() throws IOException {
+		ensureOpen();
+		if (chunk.length() > 0) {
+			queueChunk();
+		}
+	}
+
+	/**
+	 * Waits until all the text is written to the sink and flushes the sink.
+	 * The writer thread is stopped even if the rest of the text could not be
+	 * queued, eg: the sink already failed, and the failure is then thrown.
+	 */
+	@Override
+	public void close() throws IOException {
+		if (closed) {
+			return;
+		}
+		try {
+			flush();
+		} finally {
+			closed = true;
+			put(END);
+
+			try {
+				writerThread.join();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new InterruptedIOException("Interrupted while writing the reports");
+			}
+		}
+		if (failure != null) {
+			throw failure;
+		}
+	}
+
+	private void queueChunk() throws IOException {
+		put(chunk.toString());
+		chunk = new StringBuilder(CHUNK_SIZE);
+	}
+
+	private void put(final String text) throws IOException {
+		try {
+			chunks.put(text);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException("Interrupted while writing the reports");
+		}
+	}
+
+	private void ensureOpen() throws IOException {
+		if (closed) {
+			throw new IOException("The report writer is closed");
+		}
+		if (failure != null) {
+			throw failure;
+		}
+	}
+
+	/**
+	 * The loop of the writer thread. The chunks are taken from the queue until
+	 * the writer is closed. Once the sink fails, the rest of the chunks are
+	 * only taken from the queue, so that the rendering does not wait forever.
+	 */
+	private void writeChunks() {
+		try {
+			for (String text = chunks.take(); text != END; text = chunks.take()) {
+				if (failure == null) {
+					try {
+						sink.write(text);
+					} catch (IOException e) {
+						failure = e;
+					}
+				}
+			}
+			if (failure == null) {
+				sink.flush();
+			}
+		} catch (IOException e) {
+			failure = e;
+		} catch (InterruptedException e) {
+			failure = new InterruptedIOException("Interrupted while writing the reports");
+		}
+	}
+}
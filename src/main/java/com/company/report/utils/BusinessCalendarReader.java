@@ -0,0 +1,188 @@
+package com.company.report.utils;
+
+import java.io.BufferedReader;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.function.UnaryOperator;
+
+import com.company.report.settlement.IBusinessDays;
+import com.company.report.settlement.impl.BusinessCalendars;
+import com.company.report.settlement.impl.HolidayBusinessDays;
+
+/**
+ * The class defines logic to read the business days calendars from the
+ * business calendar file and the public holidays from the holiday file.
+ *
+ * The business calendar file is a properties file with the following keys:
+ * 	calendar.range.from				- the first date (yyyy-MM-dd) covered by the calendars
+ * 	calendar.range.to				- the last date (yyyy-MM-dd) covered by the calendars
+ * 	calendar.[id].businessDays		- the business days of the week for a calendar
+ * 	calendar.default				- the calendar for the currencies not mapped to a calendar
+ * 	currency.[code]					- the calendar for a currency
+ * 	holidays.file					- the holiday file
+ *
+ * The holiday file has a line for each holiday - the calendar and the date in
+ * the same format as the instructions, eg: MIDDLE_EAST,01 Dec 2017. The lines
+ * starting with # are comments.
+ *
+ * The business calendar file is loaded from the disk if the file exists,
+ * otherwise from the classpath. The business calendar file could be specified
+ * using the system property <code>report.calendars.file</code>. The holiday
+ * file is resolved against the business calendar file - the directory of the
+ * file on the disk or its package in the classpath - so the calendars are
+ * read the same way from any working directory.
+ *
+ * @author prejith.devarajan
+ *
+ */
+public class BusinessCalendarReader {
+
+	private static final String CALENDAR_PREFIX = "calendar.";
+
+	private static final String BUSINESS_DAYS_SUFFIX = ".businessDays";
+
+	private static final String CURRENCY_PREFIX = "currency.";
+
+	private BusinessCalendarReader() {
+	}
+
+	/**
+	 * Checks if the business calendar file is available.
+	 *
+	 * @return true if the business calendar file could be read
+	 */
+	public static final boolean hasCalendars() {
+		return getPath(getCalendarsFile()) != null || Thread.currentThread().getContextClassLoader()
+				.getResource(getCalendarsFile()) != null;
+	}
+
+	/**
+	 * Reads the business calendar file and constructs the calendars.
+	 *
+	 * @param decorator
+	 *            applied to each calendar before it is mapped to the
+	 *            currencies, eg: to remember the actual settlement dates
+	 * @return the calendars and the calendar for each currency
+	 * @throws IOException
+	 */
+	public static final BusinessCalendars readCalendars(final UnaryOperator<IBusinessDays> decorator)
+			throws IOException {
+		final String calendarsFile = getCalendarsFile();
+		final Path calendarsPath = getPath(calendarsFile);
+		final Properties properties = new Properties();
+		try (InputStream is = calendarsPath != null ? Files.newInputStream(calendarsPath) : openResource(calendarsFile)) {
+			properties.load(is);
+		}
+
+		final LocalDate from = LocalDate.parse(properties.getProperty("calendar.range.from"));
+		final LocalDate to = LocalDate.parse(properties.getProperty("calendar.range.to"));
+		final String holidaysFile = properties.getProperty("holidays.file");
+		final Map<String, Set<LocalDate>> holidays;
+		if (holidaysFile == null) {
+			holidays = new HashMap<>();
+		} else if (calendarsPath != null) {
+			holidays = readHolidays(holidaysFile, Files.newInputStream(calendarsPath.resolveSibling(holidaysFile)));
+		} else {
+			holidays = readHolidays(holidaysFile, openResource(calendarsFile.substring(0,
+					calendarsFile.lastIndexOf('/') + 1) + holidaysFile));
+		}
+
+		final Map<String, IBusinessDays> calendars = new HashMap<>();
+		final Map<String, String> currencyCalendars = new HashMap<>();
+		for (String key : properties.stringPropertyNames()) {
+			final String value = properties.getProperty(key).trim();
+
+			if (key.startsWith(CALENDAR_PREFIX) && key.endsWith(BUSINESS_DAYS_SUFFIX)) {
+				final String calendar = key.substring(CALENDAR_PREFIX.length(),
+						key.length() - BUSINESS_DAYS_SUFFIX.length());
+				final Set<LocalDate> calendarHolidays = holidays.remove(calendar);
+
+				calendars.put(calendar, decorator.apply(new HolidayBusinessDays(parseDaysOfWeek(value),
+						calendarHolidays == null ? new HashSet<>() : calendarHolidays, from, to)));
+			} else if (key.startsWith(CURRENCY_PREFIX)) {
+				currencyCalendars.put(key.substring(CURRENCY_PREFIX.length()), value);
+			}
+		}
+		if (!holidays.isEmpty()) {
+			throw new IllegalArgumentException("Holidays for unknown business calendars: " + holidays.keySet());
+		}
+
+		return new BusinessCalendars(calendars, currencyCalendars, properties.getProperty("calendar.default").trim());
+	}
+
+	/**
+	 * Reads the holiday file
+	 *
+	 * @param holidaysFile
+	 * @param is
+	 *            the stream of the holiday file, closed once it is read
+	 * @return the holidays for each calendar
+	 * @throws IOException
+	 */
+	private static Map<String, Set<LocalDate>> readHolidays(final String holidaysFile, final InputStream is)
+			throws IOException {
+		final DateTimeFormatter dateFormatter = DateTimeFormatter.ofPattern(
+				DailyTradeReportingConstants.INSTRUCTIONS_DATE_FORMAT);
+		final Map<String, Set<LocalDate>> holidays = new HashMap<>();
+
+		try (BufferedReader reader = new BufferedReader(new InputStreamReader(is))) {
+			String line;
+			while ((line = reader.readLine()) != null) {
+				line = line.trim();
+				if (line.isEmpty() || line.startsWith("#")) {
+					continue;
+				}
+
+				final String[] fields = line.split(DailyTradeReportingConstants.INSTRUCTIONS_CSV_DELIMETER);
+				if (fields.length != 2) {
+					throw new IllegalArgumentException("Invalid holiday in " + holidaysFile + ": " + line);
+				}
+				holidays.computeIfAbsent(fields[0].trim(), calendar -> new HashSet<>())
+						.add(LocalDate.parse(fields[1].trim(), dateFormatter));
+			}
+		}
+		return holidays;
+	}
+
+	private static Set<DayOfWeek> parseDaysOfWeek(final String daysOfWeek) {
+		final Set<DayOfWeek> days = EnumSet.noneOf(DayOfWeek.class);
+
+		for (String day : daysOfWeek.split(",")) {
+			days.add(DayOfWeek.valueOf(day.trim().toUpperCase(Locale.ROOT)));
+		}
+		return days;
+	}
+
+	private static String getCalendarsFile() {
+		return System.getProperty(DailyTradeReportingConstants.CALENDARS_FILE_PROPERTY,
+				DailyTradeReportingConstants.CALENDARS_FILE_PATH);
+	}
+
+	private static Path getPath(final String file) {
+		final Path path = Paths.get(file);
+		return Files.isRegularFile(path) ? path : null;
+	}
+
+	private static InputStream openResource(final String file) throws IOException {
+		final InputStream is = Thread.currentThread().getContextClassLoader().getResourceAsStream(file);
+		if (is == null) {
+			throw new FileNotFoundException(file);
+		}
+		return is;
+	}
+}
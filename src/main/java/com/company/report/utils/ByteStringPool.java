@@ -0,0 +1,171 @@
+package com.company.report.utils;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.util.function.ToIntFunction;
+
+/**
+ * The class maps the raw bytes of a data feed field to a canonical
+ * <code>String</code>. The text is decoded only the first time a byte sequence
+ * is seen, every further occurrence returns the same <code>String</code>
+ * instance without allocating. This suits the fields like entity and currency
+ * which repeat heavily across the instructions of a data feed.
+ *
+ * The pool could also remember an identifier for each text, eg: the
+ * identifier of a currency in the <code>CurrencyRegistry</code>, so that the
+ * identifier is looked up only the first time a byte sequence is seen.
+ *
+ * NOTE: The class is not thread safe, each reader holds its own pool.
+ *
+ * @author prejith.devarajan
+ *
+ */
+public class ByteStringPool {
+
+	// The initial number of slots in the pool, always a power of two
+	private static final int INITIAL_CAPACITY = 256;
+
+	private final Charset charset;
+
+	// Assigns the identifier for a text, null if the pool does not hold identifiers
+	private final ToIntFunction<String> identifier;
+
+	private byte[][] keys = new byte[INITIAL_CAPACITY][];
+
+	private String[] values = new String[INITIAL_CAPACITY];
+
+	private int[] hashes = new int[INITIAL_CAPACITY];
+
+	private int[] ids = new int[INITIAL_CAPACITY];
+
+	private int size;
+
+	/**
+	 * @param charset
+	 *            the charset used to decode the bytes of the data feed
+	 */
+	public ByteStringPool(final Charset charset) {
+		this(charset, null);
+	}
+
+	/**
+	 * @param charset
+	 *            the charset used to decode the bytes of the data feed
+	 * @param identifier
+	 *            assigns the identifier for a text
+	 */
+	public ByteStringPool(final Charset charset, final ToIntFunction<String> identifier) {
+		this.charset = charset;
+		this.identifier = identifier;
+	}
+
+	/**
+	 * Returns the canonical <code>String</code> for the bytes in the buffer
+	 * between the given positions.
+	 *
+	 * @param buffer
+	 *            the buffer holding the data feed
+	 * @param from
+	 *            the position of the first byte, inclusive
+	 * @param to
+	 *            the position of the last byte, exclusive
+	 * @return the decoded text
+	 */
+	public String intern(final ByteBuffer buffer, final int from, final int to) {
+		// find the slot first, the arrays are replaced when the pool grows
+		final int slot = find(buffer, from, to);
+		return values[slot];
+	}
+
+	/**
+	 * Returns the identifier for the bytes in the buffer between the given
+	 * positions.
+	 *
+	 * @param buffer
+	 *            the buffer holding the data feed
+	 * @param from
+	 *            the position of the first byte, inclusive
+	 * @param to
+	 *            the position of the last byte, exclusive
+	 * @return the identifier of the decoded text
+	 */
+	public int getId(final ByteBuffer buffer, final int from, final int to) {
+		final int slot = find(buffer, from, to);
+		return ids[slot];
+	}
+
+	/**
+	 * Finds the slot of the bytes, the bytes are added to the pool if not
+	 * already available.
+	 */
+	private int find(final ByteBuffer buffer, final int from, final int to) {
+		int hash = 1;
+		for (int i = from; i < to; i++) {
+			hash = 31 * hash + buffer.get(i);
+		}
+
+		final int mask = keys.length - 1;
+		int slot = hash & mask;
+		while (keys[slot] != null) {
+			if (hashes[slot] == hash && matches(keys[slot], buffer, from, to)) {
+				return slot;
+			}
+			slot = (slot + 1) & mask;
+		}
+
+		// first occurrence of the text - decode and remember the bytes
+		final byte[] key = new byte[to - from];
+		for (int i = from; i < to; i++) {
+			key[i - from] = buffer.get(i);
+		}
+		final String value = new String(key, charset);
+		keys[slot] = key;
+		values[slot] = value;
+		hashes[slot] = hash;
+		ids[slot] = identifier == null ? 0 : identifier.applyAsInt(value);
+
+		if (++size * 2 > keys.length) {
+			resize();
+			return find(buffer, from, to);
+		}
+		return slot;
+	}
+
+	private static boolean matches(final byte[] key, final ByteBuffer buffer, final int from, final int to) {
+		if (key.length != to - from) {
+			return false;
+		}
+		for (int i = 0; i < key.length; i++) {
+			if (key[i] != buffer.get(from + i)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private void resize() {
+		final byte[][] oldKeys = keys;
+		final String[] oldValues = values;
+		final int[] oldHashes = hashes;
+		final int[] oldIds = ids;
+
+		keys = new byte[oldKeys.length * 2][];
+		values = new String[oldKeys.length * 2];
+		hashes = new int[oldKeys.length * 2];
+		ids = new int[oldKeys.length * 2];
+
+		final int mask = keys.length - 1;
+		for (int i = 0; i < oldKeys.length; i++) {
+			if (oldKeys[i] != null) {
+				int slot = oldHashes[i] & mask;
+				while (keys[slot] != null) {
+					slot = (slot + 1) & mask;
+				}
+				keys[slot] = oldKeys[i];
+				values[slot] = oldValues[i];
+				hashes[slot] = oldHashes[i];
+				ids[slot] = oldIds[i];
+			}
+		}
+	}
+}
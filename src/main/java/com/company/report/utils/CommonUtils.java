@@ -1,11 +1,13 @@
 package com.company.report.utils;
 
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.LinkedHashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.PriorityQueue;
 
 /**
  * The class defines the common utility methods for the daily trade reporting
@@ -19,21 +21,19 @@ public class CommonUtils {
 	/**
 	 * Sort the map based on its value. The method accepts a map which needs to
 	 * be sorted. However the method does not modify the input map as it creates
-	 * a new map based on the sorted entries.
+	 * a new map based on the sorted entries. The entries with the same value are
+	 * sorted by the key.
 	 *
 	 * @param unsortMap
 	 *            the map which needs to be sorted by value
 	 * @return sortedMap the resulting sorted map
 	 */
-	public static <K, V extends Comparable<? super V>> Map<K, V> sortMapByValue(Map<K, V> unsortMap) {
+	public static <K extends Comparable<? super K>, V extends Comparable<? super V>> Map<K, V> sortMapByValue(
+			Map<K, V> unsortMap) {
 
 	    List<Map.Entry<K, V>> list = new LinkedList<>(unsortMap.entrySet());
 	    // sort the map entries
-	    Collections.sort(list, new Comparator<Map.Entry<K, V>>() {
-	        public int compare(Map.Entry<K, V> o1, Map.Entry<K, V> o2) {
-	            return (o2.getValue()).compareTo(o1.getValue());
-	        }
-	    });
+	    Collections.sort(list, byValue());
 
 		/*
 		 * Constructs a new map based on the already sorted map entries. This is
@@ -45,4 +45,54 @@ public class CommonUtils {
 		}
 	    return result;
 	}
+
+	/**
+	 * Selects the top entries of the map based on its value. The method keeps
+	 * a bounded heap of the top entries, so only the selected entries are
+	 * sorted. The input map is not modified. The entries are selected and
+	 * sorted in the same order as by <code>sortMapByValue</code>, so the top
+	 * entries are the first entries of the sorted map.
+	 *
+	 * @param unsortMap
+	 *            the map from which the top entries are selected
+	 * @param top
+	 *            the number of top entries
+	 * @return sortedMap the top entries sorted by value
+	 */
+	public static <K extends Comparable<? super K>, V extends Comparable<? super V>> Map<K, V> topByValue(
+			Map<K, V> unsortMap, int top) {
+		final Comparator<Map.Entry<K, V>> byValue = byValue();
+
+		// the heap holds the last of the top entries at its head
+		final PriorityQueue<Map.Entry<K, V>> heap = new PriorityQueue<>(top + 1, byValue.reversed());
+		for (Map.Entry<K, V> entry : unsortMap.entrySet()) {
+			if (heap.size() < top) {
+				heap.add(entry);
+			} else if (byValue.compare(entry, heap.peek()) < 0) {
+				heap.poll();
+				heap.add(entry);
+			}
+		}
+
+		final List<Map.Entry<K, V>> list = new ArrayList<>(heap);
+		list.sort(byValue);
+
+		Map<K, V> result = new LinkedHashMap<>();
+		for (Map.Entry<K, V> entry : list) {
+			result.put(entry.getKey(), entry.getValue());
+		}
+		return result;
+	}
+
+	/*
+	 * The order of the ranking - the highest value first and the entries with
+	 * the same value by the key, the same order as of the RankingTree.
+	 */
+	private static <K extends Comparable<? super K>, V extends Comparable<? super V>>
+			Comparator<Map.Entry<K, V>> byValue() {
+		return (o1, o2) -> {
+			final int compare = o2.getValue().compareTo(o1.getValue());
+			return compare != 0 ? compare : o1.getKey().compareTo(o2.getKey());
+		};
+	}
 }
@@ -0,0 +1,91 @@
+package com.company.report.utils;
+
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The registry of the currency codes. Each distinct currency code is
+ * assigned a small integer identifier the first time it is seen. The
+ * identifier is used in place of the currency code, eg: to look up the
+ * business days calendar for the currency with an array index.
+ *
+ * The currency codes are compared ignoring the case, the registry holds the
+ * codes in upper case. The identifiers are stable for the life time of the
+ * process and the registry could be used by several threads.
+ *
+ * @author prejith.devarajan
+ *
+ */
+public class CurrencyRegistry {
+
+	private static final CurrencyRegistry instance = new CurrencyRegistry();
+
+	// The identifier for each currency code as seen in the feed
+	private final Map<String, Integer> currencyIds = new ConcurrentHashMap<>();
+
+	// The currency code in upper case for each identifier
+	private volatile String[] currencies = new String[16];
+
+	private int size;
+
+	private CurrencyRegistry() {
+	}
+
+	/**
+	 * The method returns the singleton instance for the CurrencyRegistry class
+	 *
+	 * @return the instance of CurrencyRegistry
+	 */
+	public static CurrencyRegistry getInstance() {
+		return instance;
+	}
+
+	/**
+	 * Returns the identifier for the currency code, a new identifier is
+	 * assigned if the currency code is not yet known.
+	 *
+	 * @param currency
+	 *            the currency code
+	 * @return the identifier for the currency code
+	 */
+	public int getId(final String currency) {
+		final Integer currencyId = currencyIds.get(currency);
+		return currencyId == null ? register(currency) : currencyId;
+	}
+
+	/**
+	 * @param currencyId
+	 *            the identifier of the currency
+	 * @return the currency code in upper case
+	 */
+	public String getCurrency(final int currencyId) {
+		return currencies[currencyId];
+	}
+
+	/**
+	 * @return the number of currency codes known
+	 */
+	public synchronized int size() {
+		return size;
+	}
+
+	private synchronized int register(final String currency) {
+		final String code = currency.toUpperCase(Locale.ROOT);
+
+		Integer currencyId = currencyIds.get(code);
+		if (currencyId == null) {
+			if (size == currencies.length) {
+				currencies = Arrays.copyOf(currencies, size * 2);
+			}
+			currencyId = size;
+			currencies[size++] = code;
+			// the code is published to other threads along with the identifier by the concurrent map
+			currencyIds.put(code, currencyId);
+		}
+		// the code as seen in the feed maps to the same identifier
+		currencyIds.put(currency, currencyId);
+		return currencyId;
+	}
+}
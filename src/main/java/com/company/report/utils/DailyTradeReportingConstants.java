@@ -12,6 +12,112 @@ public class DailyTradeReportingConstants {
 	// The name of the settlement instruction CSV file.
 	public static final String INSTRUCTIONS_FILE_PATH = "trade-intructions.csv";
 
+	// The system property to read the settlement instructions from a file instead of the classpath
+	public static final String INSTRUCTIONS_FILE_PROPERTY = "report.instructions.file";
+
+	// The system property to choose the reader for the settlement instruction file
+	public static final String INSTRUCTIONS_READER_PROPERTY = "report.instructions.reader";
+
+	// The reader which memory maps the instruction file and decodes the fields in place
+	public static final String INSTRUCTIONS_READER_MAPPED = "mapped";
+
+	// The reader which uses the opencsv library for the instruction file
+	public static final String INSTRUCTIONS_READER_OPENCSV = "opencsv";
+
+	// The system property for the number of workers reading the instruction file in parallel
+	public static final String INGEST_WORKERS_PROPERTY = "report.ingest.workers";
+
+	// The system property to hold the instructions in a columnar store before the reports are generated
+	public static final String INSTRUCTIONS_COLUMNAR_PROPERTY = "report.instructions.columnar";
+
+	// The system property for the binary snapshot of the instructions, written if not available
+	public static final String INSTRUCTIONS_SNAPSHOT_PROPERTY = "report.instructions.snapshot";
+
+	// The system property to let the workers add to the same reports instead of merging the reports
+	public static final String INGEST_CONCURRENT_PROPERTY = "report.ingest.concurrent";
+
+	// The system property for the checkpoint file of the reports, the reports are resumed from it if available
+	public static final String CHECKPOINT_FILE_PROPERTY = "report.checkpoint.file";
+
+	// The system property for the number of instructions read between the checkpoints
+	public static final String CHECKPOINT_INTERVAL_PROPERTY = "report.checkpoint.interval";
+
+	public static final int CHECKPOINT_INTERVAL_DEFAULT = 1000000;
+
+	// The command line argument for the format of the reports - text, csv or jsonl
+	public static final String REPORT_FORMAT_ARGUMENT = "--format=";
+
+	// The command line argument for the file to write the reports to, instead of the console
+	public static final String REPORT_OUTPUT_ARGUMENT = "--output=";
+
+	// The command line argument for the first settlement date (yyyy-MM-dd) of the reports written
+	public static final String REPORT_FROM_ARGUMENT = "--from=";
+
+	// The command line argument for the last settlement date (yyyy-MM-dd) of the reports written
+	public static final String REPORT_TO_ARGUMENT = "--to=";
+
+	// The command line argument for the directory, or the comma separated list, of the feed files of a batch run
+	public static final String REPORT_BATCH_ARGUMENT = "--batch=";
+
+	// The system property for the glob of the feed files read from the directory of a batch run
+	public static final String BATCH_GLOB_PROPERTY = "report.batch.glob";
+
+	public static final String BATCH_GLOB_DEFAULT = "*.csv";
+
+	// The text format of the reports, as displayed in the console
+	public static final String REPORT_FORMAT_TEXT = "text";
+
+	// The CSV format of the reports, a line for each amount and each ranked entity
+	public static final String REPORT_FORMAT_CSV = "csv";
+
+	// The JSON Lines format of the reports, an object for each amount and each ranked entity
+	public static final String REPORT_FORMAT_JSONL = "jsonl";
+
+	// The system property to write the reports to the console on a separate writer thread
+	public static final String OUTPUT_ASYNC_PROPERTY = "report.output.async";
+
+	// The system property to record the metrics of each stage, the summary is written at the end of the run
+	public static final String METRICS_PROPERTY = "report.metrics";
+
+	// The system property for the file of the metrics summary, the standard error if not set
+	public static final String METRICS_FILE_PROPERTY = "report.metrics.file";
+
+	// The system property to record the metrics and expose them through JMX
+	public static final String METRICS_JMX_PROPERTY = "report.metrics.jmx";
+
+	// The system property to follow the instruction file as it is appended, polled at the given milliseconds
+	public static final String FOLLOW_INTERVAL_PROPERTY = "report.follow.interval";
+
+	// The name of the business calendar file
+	public static final String CALENDARS_FILE_PATH = "business-calendars.properties";
+
+	// The system property to read the business calendars from another file
+	public static final String CALENDARS_FILE_PROPERTY = "report.calendars.file";
+
+	// The system property for the first date (yyyy-MM-dd) of the settlement dates remembered for each region
+	public static final String SETTLEMENT_CACHE_FROM_PROPERTY = "report.settlement.cache.from";
+
+	public static final String SETTLEMENT_CACHE_FROM_DEFAULT = "2000-01-01";
+
+	// The system property for the number of days of the settlement dates remembered for each region
+	public static final String SETTLEMENT_CACHE_DAYS_PROPERTY = "report.settlement.cache.days";
+
+	public static final int SETTLEMENT_CACHE_DAYS_DEFAULT = 50 * 366;
+
+	// The system property for the number of top entities printed in the ranking reports, all if 0
+	public static final String RANKING_TOP_PROPERTY = "report.ranking.top";
+
+	// The system property to remember the ranking until a new trade amount is added
+	public static final String RANKING_CACHE_PROPERTY = "report.ranking.cache";
+
+	// The system property to maintain the ranking while the trade amounts are added
+	public static final String RANKING_INCREMENTAL_PROPERTY = "report.ranking.incremental";
+
+	// The system property to generate the amount and ranking reports in a single pass for each instruction
+	public static final String GENERATORS_FUSED_PROPERTY = "report.generators.fused";
+
+	public static final String GENERATORS_FUSED_DEFAULT = "true";
+
 	// The delimeter which separates the date fields in the instruction CSV file
 	public static final String INSTRUCTIONS_CSV_DELIMETER = ",";
 
@@ -0,0 +1,236 @@
+package com.company.report.utils;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.BiConsumer;
+import java.util.function.IntConsumer;
+
+import com.company.report.entity.Instruction;
+
+/**
+ * The class sums up the trade amounts for each entity, keyed by the
+ * identifier of the entity in the <code>EntityDictionary</code>. The sums are
+ * held as fixed point amounts in an open addressing map from
+ * <code>int</code> to <code>long</code> - two primitive arrays - so adding a
+ * trade amount does not box the key or allocate an accumulator for each
+ * entity.
+ *
+ * Same as the <code>MoneyAccumulator</code>, the part of a sum which could not
+ * be held as fixed point amount moves over to <code>BigDecimal</code>. The
+ * decimal parts are held in a separate map, which is empty for almost all the
+ * feeds.
+ *
+ * NOTE: The class is not thread safe.
+ *
+ * @author prejith.devarajan
+ *
+ */
+public class EntityAmounts {
+
+	// The key of a free slot, the entity identifiers are never negative
+	private static final int FREE = -1;
+
+	private int[] entityIds;
+
+	private long[] amounts;
+
+	private int size;
+
+	// The part of the sums which could not be held as fixed point, for each entity identifier
+	private final Map<Integer, BigDecimal> overflows = new HashMap<>();
+
+	public EntityAmounts() {
+		this.entityIds = newEntityIds(16);
+		this.amounts = new long[16];
+	}
+
+	/**
+	 * Adds the trade amount of the instruction to the sum for the entity of
+	 * the instruction
+	 *
+	 * @param instruction
+	 */
+	public void add(final Instruction instruction) {
+		final long tradeAmount = instruction.getFixedPointTradeAmount();
+
+		if (tradeAmount == FixedPointMath.OVERFLOW) {
+			add(instruction.getEntityId(), instruction.getTradeAmount());
+		} else {
+			add(instruction.getEntityId(), tradeAmount);
+		}
+	}
+
+	/**
+	 * Adds a fixed point amount to the sum for the entity
+	 *
+	 * @param entityId
+	 * @param fixedPointAmount
+	 */
+	public void add(final int entityId, final long fixedPointAmount) {
+		final int slot = slot(entityId);
+		final long amount = amounts[slot];
+		final long sum = amount + fixedPointAmount;
+
+		if (((amount ^ sum) & (fixedPointAmount ^ sum)) < 0) {
+			// the long sum overflows - move the sum so far to the decimal part
+			add(entityId, FixedPointMath.toBigDecimal(amount));
+			amounts[slot(entityId)] = fixedPointAmount;
+		} else {
+			amounts[slot] = sum;
+		}
+	}
+
+	/**
+	 * Adds a decimal amount to the sum for the entity
+	 *
+	 * @param entityId
+	 * @param decimalAmount
+	 */
+	public void add(final int entityId, final BigDecimal decimalAmount) {
+		// the entity is always in the fixed point map, so that it is iterated
+		slot(entityId);
+		overflows.merge(entityId, decimalAmount, BigDecimal::add);
+	}
+
+	/**
+	 * Adds the sums for each entity of another instance
+	 *
+	 * @param entityAmounts
+	 */
+	public void add(final EntityAmounts entityAmounts) {
+		for (int slot = 0; slot < entityAmounts.entityIds.length; slot++) {
+			if (entityAmounts.entityIds[slot] != FREE) {
+				add(entityAmounts.entityIds[slot], entityAmounts.amounts[slot]);
+			}
+		}
+		entityAmounts.overflows.forEach(this::add);
+	}
+
+	/**
+	 * @param entityId
+	 * @return the fixed point part of the sum for the entity
+	 */
+	public long getFixedPointAmount(final int entityId) {
+		final int slot = find(entityIds, entityId);
+		return entityIds[slot] == FREE ? 0 : amounts[slot];
+	}
+
+	/**
+	 * @param entityId
+	 * @return the sum for the entity as <code>BigDecimal</code> if a part of
+	 *         the sum could not be held as fixed point amount, otherwise null
+	 */
+	public BigDecimal getDecimalAmount(final int entityId) {
+		final BigDecimal overflow = overflows.get(entityId);
+		return overflow == null ? null : overflow.add(FixedPointMath.toBigDecimal(getFixedPointAmount(entityId)));
+	}
+
+	/**
+	 * @return the number of entities with a trade amount
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * @return the identifiers of the entities with a trade amount
+	 */
+	public int[] getEntityIds() {
+		final int[] ids = new int[size];
+
+		int i = 0;
+		for (final int entityId : entityIds) {
+			if (entityId != FREE) {
+				ids[i++] = entityId;
+			}
+		}
+		return ids;
+	}
+
+	/**
+	 * Passes the identifier of each entity to the consumer
+	 *
+	 * @param consumer
+	 */
+	public void forEachEntityId(final IntConsumer consumer) {
+		for (final int entityId : entityIds) {
+			if (entityId != FREE) {
+				consumer.accept(entityId);
+			}
+		}
+	}
+
+	/**
+	 * Passes each entity and its sum to the consumer
+	 *
+	 * @param consumer
+	 */
+	public void forEach(final BiConsumer<String, BigDecimal> consumer) {
+		final EntityDictionary dictionary = EntityDictionary.getInstance();
+
+		for (int slot = 0; slot < entityIds.length; slot++) {
+			final int entityId = entityIds[slot];
+			if (entityId != FREE) {
+				final BigDecimal overflow = overflows.get(entityId);
+				final BigDecimal amount = FixedPointMath.toBigDecimal(amounts[slot]);
+				consumer.accept(dictionary.getEntity(entityId), overflow == null ? amount : overflow.add(amount));
+			}
+		}
+	}
+
+	/**
+	 * Returns the slot of the entity, the entity is added with a zero sum if
+	 * not already available.
+	 */
+	private int slot(final int entityId) {
+		int slot = find(entityIds, entityId);
+
+		if (entityIds[slot] == FREE) {
+			if ((size + 1) * 2 > entityIds.length) {
+				resize();
+				slot = find(entityIds, entityId);
+			}
+			entityIds[slot] = entityId;
+			size++;
+		}
+		return slot;
+	}
+
+	private void resize() {
+		final int[] oldEntityIds = entityIds;
+		final long[] oldAmounts = amounts;
+
+		entityIds = newEntityIds(oldEntityIds.length * 2);
+		amounts = new long[oldAmounts.length * 2];
+		for (int slot = 0; slot < oldEntityIds.length; slot++) {
+			if (oldEntityIds[slot] != FREE) {
+				final int newSlot = find(entityIds, oldEntityIds[slot]);
+				entityIds[newSlot] = oldEntityIds[slot];
+				amounts[newSlot] = oldAmounts[slot];
+			}
+		}
+	}
+
+	private static int[] newEntityIds(final int slots) {
+		final int[] entityIds = new int[slots];
+		Arrays.fill(entityIds, FREE);
+		return entityIds;
+	}
+
+	/**
+	 * @return the slot of the entity, or the free slot where it could be added
+	 */
+	private static int find(final int[] entityIds, final int entityId) {
+		final int mask = entityIds.length - 1;
+
+		// spread the dense identifiers over the table
+		final int hash = entityId * 0x9E3779B9;
+		int slot = (hash ^ (hash >>> 16)) & mask;
+		while (entityIds[slot] != entityId && entityIds[slot] != FREE) {
+			slot = (slot + 1) & mask;
+		}
+		return slot;
+	}
+}
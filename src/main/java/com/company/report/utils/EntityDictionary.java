@@ -0,0 +1,86 @@
+package com.company.report.utils;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The dictionary of the trade entities. Each distinct entity is assigned a
+ * small integer identifier the first time it is seen during the ingestion.
+ * The instructions and the ranking reports hold the identifier in place of
+ * the entity, the entity text is held only once in the dictionary.
+ *
+ * The identifiers are dense - they start from 0 and are assigned in the order
+ * the entities are seen, so they could be used as an array index. The
+ * identifiers are stable for the life time of the process and the dictionary
+ * could be used by several threads.
+ *
+ * @author prejith.devarajan
+ *
+ */
+public class EntityDictionary {
+
+	private static final EntityDictionary instance = new EntityDictionary();
+
+	// The identifier for each entity
+	private final Map<String, Integer> entityIds = new ConcurrentHashMap<>();
+
+	// The entity for each identifier
+	private volatile String[] entities = new String[1024];
+
+	private int size;
+
+	private EntityDictionary() {
+	}
+
+	/**
+	 * The method returns the singleton instance for the EntityDictionary class
+	 *
+	 * @return the instance of EntityDictionary
+	 */
+	public static EntityDictionary getInstance() {
+		return instance;
+	}
+
+	/**
+	 * Returns the identifier for the entity, a new identifier is assigned if
+	 * the entity is not yet known.
+	 *
+	 * @param entity
+	 * @return the identifier for the entity
+	 */
+	public int getId(final String entity) {
+		final Integer entityId = entityIds.get(entity);
+		return entityId == null ? register(entity) : entityId;
+	}
+
+	/**
+	 * @param entityId
+	 *            the identifier of the entity
+	 * @return the entity
+	 */
+	public String getEntity(final int entityId) {
+		return entities[entityId];
+	}
+
+	/**
+	 * @return the number of entities known
+	 */
+	public synchronized int size() {
+		return size;
+	}
+
+	private synchronized int register(final String entity) {
+		Integer entityId = entityIds.get(entity);
+		if (entityId == null) {
+			if (size == entities.length) {
+				entities = Arrays.copyOf(entities, size * 2);
+			}
+			entityId = size;
+			entities[size++] = entity;
+			// the entity is published to other threads along with the identifier by the concurrent map
+			entityIds.put(entity, entityId);
+		}
+		return entityId;
+	}
+}
@@ -0,0 +1,305 @@
+package com.company.report.utils;
+
+import java.time.LocalDate;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.function.LongFunction;
+
+/**
+ * The map of the dates, keyed by the epoch day of the date. The epoch days are
+ * held in a <code>long</code> array with open addressing, so looking up the
+ * value for a date does not box the key or compare <code>LocalDate</code>
+ * objects.
+ *
+ * The class is a <code>java.util.Map</code> with <code>LocalDate</code> keys
+ * for the code which iterates the dates, the <code>LocalDate</code> keys are
+ * created only when the entries are iterated. The entries could not be
+ * removed.
+ *
+ * The epoch days are also held in a sorted array, so the entries are iterated
+ * in the order of the dates and the dates within a range are found with a
+ * binary search, without looking at the other dates. A new date is inserted
+ * to the sorted array, which is cheap as there are only a few distinct dates
+ * compared to the instructions.
+ *
+ * NOTE: The class is not thread safe.
+ *
+ * @author prejith.devarajan
+ *
+ * @param <V>
+ *            the type of the values
+ */
+public class EpochDayMap<V> extends AbstractMap<LocalDate, V> {
+
+	// The key of a free slot, not a valid epoch day of LocalDate
+	private static final long FREE = Long.MIN_VALUE;
+
+	private long[] epochDays;
+
+	private Object[] values;
+
+	// The epoch days in ascending order, the first size elements are used
+	private long[] sortedEpochDays;
+
+	private int size;
+
+	public EpochDayMap() {
+		this(16);
+	}
+
+	/**
+	 * @param capacity
+	 *            the number of dates expected
+	 */
+	public EpochDayMap(final int capacity) {
+		final int slots = Integer.highestOneBit(Math.max(capacity, 8) * 4 - 1);
+
+		this.epochDays = new long[slots];
+		this.values = new Object[slots];
+		this.sortedEpochDays = new long[Math.max(capacity, 8)];
+		Arrays.fill(epochDays, FREE);
+	}
+
+	/**
+	 * @param epochDay
+	 * @return the value for the epoch day, null if not available
+	 */
+	@SuppressWarnings("unchecked")
+	public V get(final long epochDay) {
+		return (V) values[find(epochDays, epochDay)];
+	}
+
+	/**
+	 * @param epochDay
+	 * @param value
+	 * @return the previous value for the epoch day, null if not available
+	 */
+	@SuppressWarnings("unchecked")
+	public V put(final long epochDay, final V value) {
+		int slot = find(epochDays, epochDay);
+
+		final V previous = (V) values[slot];
+		if (epochDays[slot] == FREE) {
+			if ((size + 1) * 2 > epochDays.length) {
+				resize();
+				slot = find(epochDays, epochDay);
+			}
+			epochDays[slot] = epochDay;
+			insertSorted(epochDay);
+			size++;
+		}
+		values[slot] = value;
+		return previous;
+	}
+
+	/**
+	 * Returns the value for the epoch day, the value is created and put to the
+	 * map if not already available.
+	 *
+	 * @param epochDay
+	 * @param mappingFunction
+	 *            creates the value for the epoch day
+	 * @return the value for the epoch day
+	 */
+	@SuppressWarnings("unchecked")
+	public V computeIfAbsent(final long epochDay, final LongFunction<? extends V> mappingFunction) {
+		final V value = (V) values[find(epochDays, epochDay)];
+		if (value != null) {
+			return value;
+		}
+
+		final V newValue = mappingFunction.apply(epochDay);
+		put(epochDay, newValue);
+		return newValue;
+	}
+
+	@Override
+	public V get(final Object key) {
+		return key instanceof LocalDate ? get(((LocalDate) key).toEpochDay()) : null;
+	}
+
+	@Override
+	public boolean containsKey(final Object key) {
+		return key instanceof LocalDate && epochDays[find(epochDays, ((LocalDate) key).toEpochDay())] != FREE;
+	}
+
+	@Override
+	public V put(final LocalDate key, final V value) {
+		return put(key.toEpochDay(), value);
+	}
+
+	@Override
+	public int size() {
+		return size;
+	}
+
+	@Override
+	public void clear() {
+		Arrays.fill(epochDays, FREE);
+		Arrays.fill(values, null);
+		size = 0;
+	}
+
+	/**
+	 * Returns a view of the dates from the first date to the last date, both
+	 * inclusive, in the order of the dates. The dates within the range are
+	 * found with a binary search, the dates put to this map later are also
+	 * seen by the view.
+	 *
+	 * @param fromDate
+	 *            the first date of the range
+	 * @param toDate
+	 *            the last date of the range
+	 * @return the map of the dates within the range
+	 */
+	public Map<LocalDate, V> subMap(final LocalDate fromDate, final LocalDate toDate) {
+		final long fromEpochDay = fromDate.toEpochDay();
+		final long toEpochDay = toDate.toEpochDay();
+
+		return new AbstractMap<LocalDate, V>() {
+
+			@Override
+			public V get(final Object key) {
+				return containsKey(key) ? EpochDayMap.this.get(key) : null;
+			}
+
+			@Override
+			public boolean containsKey(final Object key) {
+				if (!(key instanceof LocalDate)) {
+					return false;
+				}
+				final long epochDay = ((LocalDate) key).toEpochDay();
+				return epochDay >= fromEpochDay && epochDay <= toEpochDay && EpochDayMap.this.containsKey(key);
+			}
+
+			@Override
+			public Set<Map.Entry<LocalDate, V>> entrySet() {
+				return new AbstractSet<Map.Entry<LocalDate, V>>() {
+
+					@Override
+					public Iterator<Map.Entry<LocalDate, V>> iterator() {
+						return new EntryIterator(lowerBound(fromEpochDay), lowerBound(toEpochDay + 1));
+					}
+
+					@Override
+					public int size() {
+						return Math.max(lowerBound(toEpochDay + 1) - lowerBound(fromEpochDay), 0);
+					}
+				};
+			}
+		};
+	}
+
+	@Override
+	public Set<Map.Entry<LocalDate, V>> entrySet() {
+		return new AbstractSet<Map.Entry<LocalDate, V>>() {
+
+			@Override
+			public Iterator<Map.Entry<LocalDate, V>> iterator() {
+				return new EntryIterator(0, size);
+			}
+
+			@Override
+			public int size() {
+				return size;
+			}
+		};
+	}
+
+	private void resize() {
+		final long[] oldEpochDays = epochDays;
+		final Object[] oldValues = values;
+
+		epochDays = new long[oldEpochDays.length * 2];
+		values = new Object[oldValues.length * 2];
+		Arrays.fill(epochDays, FREE);
+		for (int slot = 0; slot < oldEpochDays.length; slot++) {
+			if (oldEpochDays[slot] != FREE) {
+				final int newSlot = find(epochDays, oldEpochDays[slot]);
+				epochDays[newSlot] = oldEpochDays[slot];
+				values[newSlot] = oldValues[slot];
+			}
+		}
+	}
+
+	private void insertSorted(final long epochDay) {
+		if (size == sortedEpochDays.length) {
+			sortedEpochDays = Arrays.copyOf(sortedEpochDays, size * 2);
+		}
+		final int index = lowerBound(epochDay);
+		System.arraycopy(sortedEpochDays, index, sortedEpochDays, index + 1, size - index);
+		sortedEpochDays[index] = epochDay;
+	}
+
+	/**
+	 * @return the index of the first sorted epoch day which is not less than
+	 *         the given epoch day
+	 */
+	private int lowerBound(final long epochDay) {
+		final int index = Arrays.binarySearch(sortedEpochDays, 0, size, epochDay);
+		return index < 0 ? -index - 1 : index;
+	}
+
+	/**
+	 * @return the slot of the epoch day, or the free slot where it could be
+	 *         added
+	 */
+	private static int find(final long[] epochDays, final long epochDay) {
+		final int mask = epochDays.length - 1;
+
+		// spread the consecutive epoch days over the table
+		int slot = (int) ((epochDay * 0x9E3779B97F4A7C15L) >>> 40) & mask;
+		while (epochDays[slot] != epochDay && epochDays[slot] != FREE) {
+			slot = (slot + 1) & mask;
+		}
+		return slot;
+	}
+
+	/**
+	 * Iterates the entries in the order of the dates, between the given
+	 * indexes of the sorted epoch days
+	 */
+	private class EntryIterator implements Iterator<Map.Entry<LocalDate, V>> {
+
+		private int index;
+
+		private final int end;
+
+		EntryIterator(final int from, final int to) {
+			this.index = from;
+			this.end = to;
+		}
+
+		@Override
+		public boolean hasNext() {
+			return index < end;
+		}
+
+		@Override
+		@SuppressWarnings("unchecked")
+		public Map.Entry<LocalDate, V> next() {
+			if (!hasNext()) {
+				throw new NoSuchElementException();
+			}
+
+			final long epochDay = sortedEpochDays[index++];
+			final int current = find(epochDays, epochDay);
+			return new AbstractMap.SimpleEntry<LocalDate, V>(LocalDate.ofEpochDay(epochDay),
+					(V) values[current]) {
+
+				private static final long serialVersionUID = 1L;
+
+				@Override
+				public V setValue(final V value) {
+					values[find(epochDays, epochDay)] = value;
+					return super.setValue(value);
+				}
+			};
+		}
+	}
+}
@@ -0,0 +1,103 @@
+package com.company.report.utils;
+
+import java.math.BigDecimal;
+
+/**
+ * The class defines the fixed point arithmetic for the trade amounts. An
+ * amount is held as a <code>long</code> unscaled value with the fixed scale
+ * <code>SCALE</code>, i.e. the amount 10025.5 is held as 10025500000.
+ *
+ * The scale is twice the currency scale, so that the product of an agreed fx
+ * and a price per unit, each quoted up to the currency scale, is exact. An
+ * amount which can not be held exactly - a finer scale or a value beyond the
+ * range of <code>long</code> - is reported as <code>OVERFLOW</code> and the
+ * caller falls back to <code>BigDecimal</code>.
+ *
+ * @author prejith.devarajan
+ *
+ */
+public class FixedPointMath {
+
+	// The scale of the fixed point amounts
+	public static final int SCALE = DailyTradeReportingConstants.CURRENCY_DECIMAL_SCALE_VALUE * 2;
+
+	// The marker for an amount which can not be held as a fixed point amount
+	public static final long OVERFLOW = Long.MIN_VALUE;
+
+	// The powers of ten which fit a long
+	private static final long[] POWERS_OF_TEN = new long[19];
+
+	static {
+		POWERS_OF_TEN[0] = 1;
+		for (int i = 1; i < POWERS_OF_TEN.length; i++) {
+			POWERS_OF_TEN[i] = POWERS_OF_TEN[i - 1] * 10;
+		}
+	}
+
+	private FixedPointMath() {
+	}
+
+	/**
+	 * Calculates the trade amount in USD = Price per unit * Units * Agreed Fx
+	 * as a fixed point amount. The agreed fx and the price per unit are given
+	 * as unscaled values with their scale.
+	 *
+	 * @param agreedFx
+	 *            the unscaled agreed fx
+	 * @param agreedFxScale
+	 *            the scale of the agreed fx
+	 * @param units
+	 *            the number of units
+	 * @param pricePerUnit
+	 *            the unscaled price per unit
+	 * @param pricePerUnitScale
+	 *            the scale of the price per unit
+	 * @return the fixed point trade amount, <code>OVERFLOW</code> if the
+	 *         amount can not be held exactly
+	 */
+	public static long tradeAmount(final long agreedFx, final int agreedFxScale, final int units,
+			final long pricePerUnit, final int pricePerUnitScale) {
+		if (agreedFx == OVERFLOW || pricePerUnit == OVERFLOW || agreedFxScale < 0 || pricePerUnitScale < 0) {
+			return OVERFLOW;
+		}
+		try {
+			final long product = Math.multiplyExact(Math.multiplyExact(pricePerUnit, units), agreedFx);
+			final int scale = agreedFxScale + pricePerUnitScale;
+
+			if (scale <= SCALE) {
+				return Math.multiplyExact(product, POWERS_OF_TEN[SCALE - scale]);
+			}
+			// a finer scale is fine as long as the digits beyond the fixed scale are zero
+			if (scale - SCALE >= POWERS_OF_TEN.length || product % POWERS_OF_TEN[scale - SCALE] != 0) {
+				return OVERFLOW;
+			}
+			return product / POWERS_OF_TEN[scale - SCALE];
+		} catch (ArithmeticException e) {
+			return OVERFLOW;
+		}
+	}
+
+	/**
+	 * Converts a <code>BigDecimal</code> to its unscaled value, if the value
+	 * fits a long.
+	 *
+	 * @param value
+	 *            the decimal value
+	 * @return the unscaled value, <code>OVERFLOW</code> if the unscaled value
+	 *         does not fit a long
+	 */
+	public static long unscaledValue(final BigDecimal value) {
+		return value.unscaledValue().bitLength() < Long.SIZE - 1 ? value.unscaledValue().longValue() : OVERFLOW;
+	}
+
+	/**
+	 * Converts a fixed point amount to <code>BigDecimal</code>
+	 *
+	 * @param amount
+	 *            the fixed point amount
+	 * @return the decimal amount with the fixed scale
+	 */
+	public static BigDecimal toBigDecimal(final long amount) {
+		return BigDecimal.valueOf(amount, SCALE);
+	}
+}
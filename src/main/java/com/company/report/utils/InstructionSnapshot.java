@@ -0,0 +1,382 @@
+package com.company.report.utils;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.function.IntFunction;
+
+import com.company.report.entity.Instruction;
+import com.company.report.entity.InstructionStore;
+import com.company.report.entity.TradeTxn;
+
+/**
+ * The class defines the binary snapshot of the parsed instructions. A data feed
+ * is parsed once and written as a snapshot, the snapshot is then loaded back to
+ * an <code>InstructionStore</code> for the reruns without parsing any text.
+ *
+ * The snapshot file has the following layout, all numbers big endian:
+ * 	header				- magic, version, the path, size and last modified time of the
+ * 						  data feed, number of records
+ * 	entities			- the entities of the snapshot, a record refers to an entity by its index
+ * 	currencies			- the currency codes of the snapshot, referred by their index
+ * 	decimal records		- the record index, agreed fx and price per unit as text for the
+ * 						  instructions which could not be held as unscaled values
+ * 	records				- a fixed width record of 40 bytes for each instruction
+ *
+ * A record holds the entity index (int), trade action (byte), agreed fx scale
+ * (byte), price per unit scale (byte), a padding byte, currency index (int),
+ * instruction and settlement date as epoch days (int), units (int), and the
+ * unscaled agreed fx and price per unit (long).
+ *
+ * The snapshot is current only as long as the data feed has the same path,
+ * size and last modified time as when the snapshot was written, so a changed
+ * feed is parsed again instead of loading the stale snapshot.
+ *
+ * The records are read from the memory mapped file. The entities and the
+ * currencies are mapped once to their identifiers in the
+ * <code>EntityDictionary</code> and the <code>CurrencyRegistry</code>.
+ *
+ * @author prejith.devarajan
+ *
+ */
+public class InstructionSnapshot {
+
+	private static final int MAGIC = 0x54524953; // TRIS
+
+	private static final int VERSION = 2;
+
+	// The size of each record in bytes
+	private static final int RECORD_SIZE = 40;
+
+	// The number of records in a single mapped region of the snapshot file
+	private static final int REGION_RECORDS = 1024 * 1024;
+
+	private static final TradeTxn[] TRADE_TXNS = TradeTxn.values();
+
+	private InstructionSnapshot() {
+	}
+
+	/**
+	 * Writes the instructions in the store as a snapshot file.
+	 *
+	 * @param instructions
+	 *            the columnar store of the instructions
+	 * @param snapshotPath
+	 *            the path of the snapshot file
+	 * @param feedVersion
+	 *            the version of the data feed the instructions are read from,
+	 *            taken before the feed is read
+	 * @throws IOException
+	 */
+	public static final void write(final InstructionStore instructions, final Path snapshotPath,
+			final FeedVersion feedVersion) throws IOException {
+		final EntityDictionary entityDictionary = EntityDictionary.getInstance();
+		final CurrencyRegistry currencyRegistry = CurrencyRegistry.getInstance();
+
+		// the index of each entity and currency in the snapshot, -1 if not used by the instructions
+		final int[] entityIndexes = new int[entityDictionary.size()];
+		final int[] currencyIndexes = new int[currencyRegistry.size()];
+		Arrays.fill(entityIndexes, -1);
+		Arrays.fill(currencyIndexes, -1);
+
+		int entityCount = 0;
+		int currencyCount = 0;
+		int decimalCount = 0;
+		for (int row = 0; row < instructions.size(); row++) {
+			if (entityIndexes[instructions.getEntityId(row)] < 0) {
+				entityIndexes[instructions.getEntityId(row)] = entityCount++;
+			}
+			if (currencyIndexes[instructions.getCurrencyId(row)] < 0) {
+				currencyIndexes[instructions.getCurrencyId(row)] = currencyCount++;
+			}
+			if (instructions.isDecimalInstruction(row)) {
+				decimalCount++;
+			}
+		}
+
+		try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+				Files.newOutputStream(snapshotPath), 1 << 16))) {
+			out.writeInt(MAGIC);
+			out.writeInt(VERSION);
+			feedVersion.writeTo(out);
+			out.writeInt(instructions.size());
+
+			out.writeInt(entityCount);
+			writeTexts(out, entityIndexes, entityCount, entityDictionary::getEntity);
+			out.writeInt(currencyCount);
+			writeTexts(out, currencyIndexes, currencyCount, currencyRegistry::getCurrency);
+
+			out.writeInt(decimalCount);
+			for (int row = 0; row < instructions.size(); row++) {
+				if (instructions.isDecimalInstruction(row)) {
+					final Instruction instruction = instructions.getInstruction(row);
+					out.writeInt(row);
+					writeText(out, instruction.getAgreedFx().toString());
+					writeText(out, instruction.getPricePerUnit().toString());
+				}
+			}
+
+			for (int row = 0; row < instructions.size(); row++) {
+				out.writeInt(entityIndexes[instructions.getEntityId(row)]);
+				out.writeByte(instructions.getTradeTxn(row).ordinal());
+				out.writeByte(instructions.getAgreedFxScale(row));
+				out.writeByte(instructions.getPricePerUnitScale(row));
+				out.writeByte(0);
+				out.writeInt(currencyIndexes[instructions.getCurrencyId(row)]);
+				out.writeInt(instructions.getInstructionDay(row));
+				out.writeInt(instructions.getSettlementDay(row));
+				out.writeInt(instructions.getUnits(row));
+				out.writeLong(instructions.getAgreedFxUnscaled(row));
+				out.writeLong(instructions.getPricePerUnitUnscaled(row));
+			}
+		}
+	}
+
+	/**
+	 * Checks if the snapshot file is available and was written from the data
+	 * feed as it is now.
+	 *
+	 * @param snapshotPath
+	 *            the path of the snapshot file
+	 * @param feedPath
+	 *            the path of the data feed file, null if the feed is not a
+	 *            file on the disk
+	 * @return true if the snapshot could be loaded instead of the feed
+	 * @throws IOException
+	 */
+	public static final boolean isCurrent(final Path snapshotPath, final Path feedPath) throws IOException {
+		if (!Files.exists(snapshotPath)) {
+			return false;
+		}
+
+		try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(snapshotPath)))) {
+			return in.readInt() == MAGIC && in.readInt() == VERSION
+					&& FeedVersion.readFrom(in).equals(FeedVersion.of(feedPath));
+		} catch (EOFException e) {
+			return false;
+		}
+	}
+
+	/**
+	 * Loads the instructions from a snapshot file.
+	 *
+	 * @param snapshotPath
+	 *            the path of the snapshot file
+	 * @return the columnar store of the instructions
+	 * @throws IOException
+	 */
+	public static final InstructionStore read(final Path snapshotPath) throws IOException {
+		try (FileChannel channel = FileChannel.open(snapshotPath, StandardOpenOption.READ)) {
+			final long fileSize = channel.size();
+			// the header and the dictionaries are read from the channel, up to the start of the records
+			final CountingInputStream headerStream = new CountingInputStream(
+					new BufferedInputStream(Channels.newInputStream(channel), 1 << 16));
+			final DataInputStream header = new DataInputStream(headerStream);
+
+			if (header.readInt() != MAGIC || header.readInt() != VERSION) {
+				throw new IOException("Not a supported instruction snapshot: " + snapshotPath);
+			}
+			FeedVersion.readFrom(header);
+			final int records = header.readInt();
+
+			final int[] entityIds = new int[header.readInt()];
+			for (int i = 0; i < entityIds.length; i++) {
+				entityIds[i] = EntityDictionary.getInstance().getId(readText(header));
+			}
+			final int[] currencyIds = new int[header.readInt()];
+			for (int i = 0; i < currencyIds.length; i++) {
+				currencyIds[i] = CurrencyRegistry.getInstance().getId(readText(header));
+			}
+
+			final int decimalCount = header.readInt();
+			final int[] decimalRows = new int[decimalCount];
+			final String[][] decimals = new String[decimalCount][];
+			for (int i = 0; i < decimalCount; i++) {
+				decimalRows[i] = header.readInt();
+				decimals[i] = new String[] { readText(header), readText(header) };
+			}
+
+			final long recordsStart = headerStream.getCount();
+			if (recordsStart + (long) records * RECORD_SIZE != fileSize) {
+				throw new IOException("Truncated instruction snapshot: " + snapshotPath);
+			}
+
+			final InstructionStore instructions = new InstructionStore(records);
+			int decimal = 0;
+			for (int first = 0; first < records; first += REGION_RECORDS) {
+				final int count = Math.min(REGION_RECORDS, records - first);
+				final ByteBuffer region = channel.map(MapMode.READ_ONLY,
+						recordsStart + (long) first * RECORD_SIZE, (long) count * RECORD_SIZE);
+
+				for (int row = first; row < first + count; row++) {
+					final int entityId = entityIds[region.getInt()];
+					final TradeTxn tradeTxn = TRADE_TXNS[region.get()];
+					final byte agreedFxScale = region.get();
+					final byte pricePerUnitScale = region.get();
+					region.get();
+					final int currencyId = currencyIds[region.getInt()];
+					final int instructionDay = region.getInt();
+					final int settlementDay = region.getInt();
+					final int units = region.getInt();
+					final long agreedFx = region.getLong();
+					final long pricePerUnit = region.getLong();
+
+					if (decimal < decimalCount && decimalRows[decimal] == row) {
+						instructions.add(new Instruction(EntityDictionary.getInstance().getEntity(entityId), tradeTxn,
+								new BigDecimal(decimals[decimal][0]), CurrencyRegistry.getInstance().getCurrency(currencyId),
+								LocalDate.ofEpochDay(instructionDay), LocalDate.ofEpochDay(settlementDay), units,
+								new BigDecimal(decimals[decimal][1])));
+						decimal++;
+					} else {
+						instructions.add(entityId, tradeTxn, agreedFx, agreedFxScale, currencyId, instructionDay,
+								settlementDay, units, pricePerUnit, pricePerUnitScale);
+					}
+				}
+			}
+			return instructions;
+		}
+	}
+
+	private static void writeTexts(final DataOutputStream out, final int[] indexes, final int count,
+			final IntFunction<String> text) throws IOException {
+		final String[] texts = new String[count];
+		for (int id = 0; id < indexes.length; id++) {
+			if (indexes[id] >= 0) {
+				texts[indexes[id]] = text.apply(id);
+			}
+		}
+		for (String value : texts) {
+			writeText(out, value);
+		}
+	}
+
+	private static void writeText(final DataOutputStream out, final String text) throws IOException {
+		final byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+		out.writeInt(bytes.length);
+		out.write(bytes);
+	}
+
+	private static String readText(final DataInputStream in) throws IOException {
+		final byte[] bytes = new byte[in.readInt()];
+		in.readFully(bytes);
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+
+	/**
+	 * The path, size and last modified time of the data feed a snapshot is
+	 * written from. The feed which is not a file on the disk, eg: packed
+	 * inside the archive, has no path and is taken as unchanged.
+	 */
+	public static final class FeedVersion {
+
+		private final String path;
+
+		private final long size;
+
+		private final long lastModified;
+
+		private FeedVersion(final String path, final long size, final long lastModified) {
+			this.path = path;
+			this.size = size;
+			this.lastModified = lastModified;
+		}
+
+		/**
+		 * @param feedPath
+		 *            the path of the data feed file, null if the feed is not
+		 *            a file on the disk
+		 * @return the current version of the data feed
+		 * @throws IOException
+		 */
+		public static FeedVersion of(final Path feedPath) throws IOException {
+			if (feedPath == null) {
+				return new FeedVersion("", -1, -1);
+			}
+			return new FeedVersion(feedPath.toAbsolutePath().normalize().toString(), Files.size(feedPath),
+					Files.getLastModifiedTime(feedPath).toMillis());
+		}
+
+		private static FeedVersion readFrom(final DataInputStream in) throws IOException {
+			return new FeedVersion(readText(in), in.readLong(), in.readLong());
+		}
+
+		private void writeTo(final DataOutputStream out) throws IOException {
+			writeText(out, path);
+			out.writeLong(size);
+			out.writeLong(lastModified);
+		}
+
+		@Override
+		public boolean equals(final Object other) {
+			if (!(other instanceof FeedVersion)) {
+				return false;
+			}
+			final FeedVersion feedVersion = (FeedVersion) other;
+			return path.equals(feedVersion.path) && size == feedVersion.size
+					&& lastModified == feedVersion.lastModified;
+		}
+
+		@Override
+		public int hashCode() {
+			return path.hashCode() * 31 + Long.hashCode(size) * 17 + Long.hashCode(lastModified);
+		}
+	}
+
+	/**
+	 * The input stream which counts the bytes read, to find the start of the
+	 * records after the header and the dictionaries.
+	 */
+	private static final class CountingInputStream extends FilterInputStream {
+
+		private long count;
+
+		CountingInputStream(final InputStream in) {
+			super(in);
+		}
+
+		@Override
+		public int read() throws IOException {
+			final int read = super.read();
+			if (read >= 0) {
+				count++;
+			}
+			return read;
+		}
+
+		@Override
+		public int read(final byte[] bytes, final int offset, final int length) throws IOException {
+			final int read = super.read(bytes, offset, length);
+			if (read > 0) {
+				count += read;
+			}
+			return read;
+		}
+
+		@Override
+		public long skip(final long length) throws IOException {
+			final long skipped = super.skip(length);
+			count += skipped;
+			return skipped;
+		}
+
+		long getCount() {
+			return count;
+		}
+	}
+}
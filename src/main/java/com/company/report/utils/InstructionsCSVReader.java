@@ -1,25 +1,36 @@
 package com.company.report.utils;
 
+import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.math.BigDecimal;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.text.ParseException;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
 import java.util.HashSet;
 import java.util.Set;
+import java.util.function.Consumer;
 
 import au.com.bytecode.opencsv.CSVReader;
 
 import com.company.report.entity.Instruction;
+import com.company.report.entity.InstructionStore;
 import com.company.report.entity.TradeTxn;
 
 /**
  * The class defines logic to read the instructions form a data feed file and
  * construct the entity <code>Instructions</code>.
  *
- * The feed file is assumed to have a predefined format.
+ * The feed file is assumed to have a predefined format. The feed file is read
+ * using the memory mapped <code>MappedInstructionsReader</code> by default, the
+ * opencsv reader could be chosen with the system property
+ * <code>report.instructions.reader=opencsv</code>.
  *
  * NOTE: It is assumed that all fields in the data feed file is mandatory and
  * validated using separate logic. The current implementation does not take care
@@ -39,12 +50,114 @@ public class InstructionsCSVReader {
 	 * @throws IOException
 	 */
 	public static final Set<Instruction> readInstructions() throws ParseException, IOException {
-		// load the CSV file
+		Set<Instruction> instructions = new HashSet<>();
+		readInstructions(instructions::add);
+
+		return instructions;
+	}
+
+	/**
+	 * Reads the feed data file to a columnar instruction store and writes the
+	 * store as a binary snapshot, so that the reruns could load the snapshot
+	 * instead of parsing the feed again.
+	 *
+	 * @param snapshotPath
+	 *            the path of the snapshot file
+	 * @return the columnar store of the instructions
+	 * @throws ParseException
+	 * @throws IOException
+	 */
+	public static final InstructionStore writeSnapshot(final Path snapshotPath) throws ParseException, IOException {
+		// the version of the feed is taken first, so a feed changed while it is read is parsed again on the next run
+		final InstructionSnapshot.FeedVersion feedVersion = InstructionSnapshot.FeedVersion.of(getFeedPath());
+		final InstructionStore instructions = new InstructionStore();
+		readInstructions(instructions::add);
+		instructions.trimToSize();
+
+		InstructionSnapshot.write(instructions, snapshotPath, feedVersion);
+		return instructions;
+	}
+
+	/**
+	 * Reads the feed data file and hands over each instruction to the consumer
+	 * as soon as the line is read. The instructions are not collected by the
+	 * reader, so the memory used does not grow with the size of the data feed.
+	 *
+	 * @param consumer
+	 *            the consumer for each instruction in the data feed
+	 * @throws ParseException
+	 * @throws IOException
+	 */
+	public static final void readInstructions(final Consumer<Instruction> consumer) throws ParseException, IOException {
+		final Path feedPath = getFeedPath();
+
+		/*
+		 * The memory mapped reader is used by default when the feed is a file
+		 * on the disk. The opencsv reader is used on request or when the feed
+		 * is packed inside an archive.
+		 */
+		if (feedPath != null && isMappedReader()) {
+			new MappedInstructionsReader(feedPath).read(consumer);
+		} else {
+			readInstructions(feedPath, ReportMetrics.timeParsing(consumer));
+		}
+	}
+
+	/**
+	 * Checks if the memory mapped reader is chosen to read the data feed file.
+	 * The reader could be chosen using the system property, the memory mapped
+	 * reader is the default.
+	 *
+	 * @return true if the memory mapped reader is to be used
+	 */
+	public static final boolean isMappedReader() {
+		return DailyTradeReportingConstants.INSTRUCTIONS_READER_MAPPED.equalsIgnoreCase(System.getProperty(
+				DailyTradeReportingConstants.INSTRUCTIONS_READER_PROPERTY,
+				DailyTradeReportingConstants.INSTRUCTIONS_READER_MAPPED));
+	}
+
+	/**
+	 * Identifies the data feed file. The file could be specified using the
+	 * system property, otherwise the feed file is loaded from the classpath.
+	 *
+	 * @return the path of the data feed file, null if the feed is not a file
+	 *         on the disk
+	 * @throws IOException
+	 */
+	public static final Path getFeedPath() throws IOException {
+		final String feedFile = System.getProperty(DailyTradeReportingConstants.INSTRUCTIONS_FILE_PROPERTY);
+		if (feedFile != null) {
+			return Paths.get(feedFile);
+		}
+
 		final ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
-		final InputStream is = classLoader.getResourceAsStream(DailyTradeReportingConstants.INSTRUCTIONS_FILE_PATH);
+		final URL feedUrl = classLoader.getResource(DailyTradeReportingConstants.INSTRUCTIONS_FILE_PATH);
+		if (feedUrl == null) {
+			throw new FileNotFoundException(DailyTradeReportingConstants.INSTRUCTIONS_FILE_PATH);
+		}
+		try {
+			return "file".equals(feedUrl.getProtocol()) ? Paths.get(feedUrl.toURI()) : null;
+		} catch (URISyntaxException e) {
+			return null;
+		}
+	}
+
+	/**
+	 * Reads the data feed using the opencsv reader.
+	 */
+	private static void readInstructions(final Path feedPath, final Consumer<Instruction> consumer) throws IOException {
+		// load the CSV file
+		final InputStream is;
+		if (feedPath != null) {
+			is = Files.newInputStream(feedPath);
+		} else {
+			final ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+			is = classLoader.getResourceAsStream(DailyTradeReportingConstants.INSTRUCTIONS_FILE_PATH);
+		}
 		final CSVReader reader = new CSVReader(new InputStreamReader(is));
+		final DateTimeFormatter dateFormatter = DateTimeFormatter.ofPattern(
+				DailyTradeReportingConstants.INSTRUCTIONS_DATE_FORMAT);
 
-		Set<Instruction> instructions = new HashSet<>();
 		String[] newLine;
 		// Iterate through the CSV and populate the Instructions for each line item in the feed file
 		while ((newLine = reader.readNext()) != null) {
@@ -53,17 +166,13 @@ public class InstructionsCSVReader {
 					TradeTxn.getEnum(newLine[1]),
 					new BigDecimal(newLine[2]),
 					newLine[3],
-					LocalDate.parse(newLine[4], DateTimeFormatter.ofPattern(
-							DailyTradeReportingConstants.INSTRUCTIONS_DATE_FORMAT)),
-					LocalDate.parse(newLine[5], DateTimeFormatter.ofPattern(
-							DailyTradeReportingConstants.INSTRUCTIONS_DATE_FORMAT)),
+					LocalDate.parse(newLine[4], dateFormatter),
+					LocalDate.parse(newLine[5], dateFormatter),
 					Integer.parseInt(newLine[6]),
 					new BigDecimal(newLine[7]));
 
-			instructions.add(instruction);
+			consumer.accept(instruction);
 		}
 		reader.close();
-
-		return instructions;
 	}
 }
@@ -0,0 +1,128 @@
+package com.company.report.utils;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The histogram of the durations in nanoseconds, with the buckets laid out in
+ * the same way as an HDR histogram. The durations below 64 nanoseconds have a
+ * bucket each, the larger durations are split into 32 buckets for each power
+ * of two, so each bucket is within about 3% of the durations it counts and the
+ * whole range of <code>long</code> is covered by less than 2000 buckets.
+ *
+ * A duration is recorded with an atomic increment of its bucket, without any
+ * allocation, so the histogram could be recorded for every instruction by
+ * several threads.
+ *
+ * @author prejith.devarajan
+ *
+ */
+public class LatencyHistogram {
+
+	// The number of bits of a duration which select its bucket within its power of two
+	private static final int SUB_BUCKET_BITS = 5;
+
+	private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+
+	// The durations below this value have a bucket of their own
+	private static final int LINEAR_BUCKETS = SUB_BUCKETS * 2;
+
+	private static final int BUCKETS = LINEAR_BUCKETS + (64 - SUB_BUCKET_BITS - 1) * SUB_BUCKETS;
+
+	private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+
+	private final LongAdder count = new LongAdder();
+
+	private final LongAdder total = new LongAdder();
+
+	/**
+	 * Records a duration, a negative duration is recorded as 0
+	 *
+	 * @param nanos
+	 *            the duration in nanoseconds
+	 */
+	public void record(final long nanos) {
+		final long value = Math.max(nanos, 0);
+		counts.incrementAndGet(bucket(value));
+		count.increment();
+		total.add(value);
+	}
+
+	/**
+	 * @return the number of durations recorded
+	 */
+	public long getCount() {
+		return count.sum();
+	}
+
+	/**
+	 * @return the sum of all durations recorded, in nanoseconds
+	 */
+	public long getTotal() {
+		return total.sum();
+	}
+
+	/**
+	 * @return the mean of the durations recorded, in nanoseconds
+	 */
+	public double getMean() {
+		final long recorded = getCount();
+		return recorded == 0 ? 0 : (double) getTotal() / recorded;
+	}
+
+	/**
+	 * Returns the duration at the percentile, as the highest duration of the
+	 * bucket which holds the percentile
+	 *
+	 * @param percentile
+	 *            the percentile between 0 and 100
+	 * @return the duration in nanoseconds, 0 if no duration is recorded
+	 */
+	public long getPercentile(final double percentile) {
+		final long recorded = getCount();
+		if (recorded == 0) {
+			return 0;
+		}
+
+		final long rank = Math.max(1, (long) Math.ceil(recorded * Math.min(percentile, 100) / 100));
+		long seen = 0;
+		for (int bucket = 0; bucket < BUCKETS; bucket++) {
+			seen += counts.get(bucket);
+			if (seen >= rank) {
+				return highestValue(bucket);
+			}
+		}
+		return highestValue(BUCKETS - 1);
+	}
+
+	/**
+	 * @return the highest duration recorded, within the precision of the
+	 *         buckets
+	 */
+	public long getMax() {
+		for (int bucket = BUCKETS - 1; bucket >= 0; bucket--) {
+			if (counts.get(bucket) > 0) {
+				return highestValue(bucket);
+			}
+		}
+		return 0;
+	}
+
+	private static int bucket(final long value) {
+		if (value < LINEAR_BUCKETS) {
+			return (int) value;
+		}
+		// the shift which leaves the highest SUB_BUCKET_BITS + 1 bits of the value
+		final int shift = 64 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS - 1;
+		return LINEAR_BUCKETS + (shift - 1) * SUB_BUCKETS + (int) ((value >>> shift) - SUB_BUCKETS);
+	}
+
+	private static long highestValue(final int bucket) {
+		if (bucket < LINEAR_BUCKETS) {
+			return bucket;
+		}
+		final int shift = (bucket - LINEAR_BUCKETS) / SUB_BUCKETS + 1;
+		final long lowest = (long) ((bucket - LINEAR_BUCKETS) % SUB_BUCKETS + SUB_BUCKETS) << shift;
+		return lowest + (1L << shift) - 1;
+	}
+}
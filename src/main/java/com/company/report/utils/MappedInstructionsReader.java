@@ -0,0 +1,438 @@
+package com.company.report.utils;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.charset.Charset;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.Month;
+import java.time.Year;
+import java.time.format.DateTimeFormatter;
+import java.util.function.Consumer;
+
+import au.com.bytecode.opencsv.CSVParser;
+
+import com.company.report.entity.Instruction;
+import com.company.report.entity.TradeTxn;
+
+/**
+ * The class defines logic to read the instructions from a data feed file by
+ * memory mapping the file. The bytes of each line are scanned for the
+ * delimiters and the fields are decoded in place - the numbers and dates are
+ * computed directly from the bytes and the entity and currency text is
+ * resolved to its identifier through a <code>ByteStringPool</code>. No intermediate <code>String</code>
+ * is created for a line of the feed.
+ *
+ * The feed file is assumed to have the same predefined format as read by the
+ * <code>InstructionsCSVReader</code>. A line with quoted fields is rare in the
+ * feed and is handed over to the opencsv parser.
+ *
+ * The file is mapped in regions, so that feeds larger than the maximum size of
+ * a single mapping can be read.
+ *
+ * NOTE: The class is not thread safe, an instance should be used by a single
+ * thread at a time.
+ *
+ * @author prejith.devarajan
+ *
+ */
+public class MappedInstructionsReader {
+
+	// The maximum size of a single mapped region of the feed file
+	private static final int REGION_SIZE = 64 * 1024 * 1024;
+
+	// The number of fields in each line of the feed file
+	private static final int FIELD_COUNT = 8;
+
+	// The month abbreviations in upper case, used to decode the dates
+	private static final String[] MONTHS = { "JAN", "FEB", "MAR", "APR", "MAY", "JUN",
+			"JUL", "AUG", "SEP", "OCT", "NOV", "DEC" };
+
+	private static final byte DELIMETER = (byte) DailyTradeReportingConstants.INSTRUCTIONS_CSV_DELIMETER.charAt(0);
+
+	private static final byte QUOTE = '"';
+
+	private final Path feedPath;
+
+	private final Charset charset = Charset.defaultCharset();
+
+	private final ByteStringPool entities = new ByteStringPool(charset, EntityDictionary.getInstance()::getId);
+
+	private final ByteStringPool currencies = new ByteStringPool(charset, CurrencyRegistry.getInstance()::getId);
+
+	// The start offset of each field in the current line, the end offset is the next delimiter
+	private final int[] fieldStarts = new int[FIELD_COUNT + 1];
+
+	// The unscaled value and the scale of the last decimal decoded
+	private long decimalUnscaled;
+	private int decimalScale;
+
+	// The file offset just after the last line handed over to the consumer
+	private long position;
+
+	/**
+	 * @param feedPath
+	 *            the path of the data feed file
+	 */
+	public MappedInstructionsReader(final Path feedPath) {
+		this.feedPath = feedPath;
+	}
+
+	/**
+	 * Reads the whole data feed file and hands over each instruction to the
+	 * consumer.
+	 *
+	 * @param consumer
+	 *            the consumer for each instruction in the data feed
+	 * @throws IOException
+	 */
+	public void read(final Consumer<Instruction> consumer) throws IOException {
+		try (FileChannel channel = FileChannel.open(feedPath, StandardOpenOption.READ)) {
+			read(channel, 0, channel.size(), false, consumer);
+		}
+	}
+
+	/**
+	 * Reads the lines of the data feed file which start within the given byte
+	 * range and hands over each instruction to the consumer. The range is
+	 * expected to be aligned on the line boundaries.
+	 *
+	 * @param from
+	 *            the file offset to start reading, inclusive
+	 * @param to
+	 *            the file offset to stop reading, exclusive
+	 * @param consumer
+	 *            the consumer for each instruction in the range
+	 * @throws IOException
+	 */
+	public void read(final long from, final long to, final Consumer<Instruction> consumer) throws IOException {
+		try (FileChannel channel = FileChannel.open(feedPath, StandardOpenOption.READ)) {
+			read(channel, from, Math.min(to, channel.size()), false, consumer);
+		}
+	}
+
+	/**
+	 * Reads the complete lines of the data feed file appended after the given
+	 * offset and hands over each instruction to the consumer. A trailing line
+	 * without a line separator is expected to be still written to the feed,
+	 * so it is not read and the position is left at the start of the line.
+	 *
+	 * @param from
+	 *            the file offset to start reading, eg: the position after the
+	 *            previous read
+	 * @param consumer
+	 *            the consumer for each instruction appended to the feed
+	 * @return the file offset just after the last complete line
+	 * @throws IOException
+	 */
+	public long readAppended(final long from, final Consumer<Instruction> consumer) throws IOException {
+		try (FileChannel channel = FileChannel.open(feedPath, StandardOpenOption.READ)) {
+			read(channel, from, channel.size(), true, consumer);
+			return position;
+		}
+	}
+
+	/**
+	 * The file offset just after the last line which was handed over to the
+	 * consumer. The position could be read from inside the consumer to know
+	 * how much of the feed is already covered.
+	 *
+	 * @return the position in the feed file
+	 */
+	public long getPosition() {
+		return position;
+	}
+
+	/**
+	 * Splits the data feed file into the given number of byte ranges. Each
+	 * range is aligned on the line boundaries, so that the ranges could be
+	 * read independently of each other.
+	 *
+	 * @param feedPath
+	 *            the path of the data feed file
+	 * @param parts
+	 *            the number of ranges required
+	 * @return the offsets which separate the ranges, starting with 0 and
+	 *         ending with the size of the file
+	 * @throws IOException
+	 */
+	public static long[] split(final Path feedPath, final int parts) throws IOException {
+		try (FileChannel channel = FileChannel.open(feedPath, StandardOpenOption.READ)) {
+			final long size = channel.size();
+			final long[] offsets = new long[parts + 1];
+			final ByteBuffer buffer = ByteBuffer.allocate(8192);
+
+			for (int part = 1; part < parts; part++) {
+				// move the nominal boundary to the start of the next line
+				long offset = Math.max(size / parts * part, offsets[part - 1]);
+				boolean found = false;
+				while (!found && offset < size) {
+					buffer.clear();
+					final int read = channel.read(buffer, offset);
+					for (int i = 0; i < read && !found; i++) {
+						found = buffer.get(i) == '\n';
+						offset++;
+					}
+				}
+				offsets[part] = offset;
+			}
+			offsets[parts] = size;
+			return offsets;
+		}
+	}
+
+	private void read(final FileChannel channel, final long from, final long to, final boolean completeLines,
+			final Consumer<Instruction> instructionConsumer) throws IOException {
+		// the time taken to parse each instruction is recorded if the metrics are required
+		final Consumer<Instruction> consumer = ReportMetrics.timeParsing(instructionConsumer);
+		long regionStart = from;
+		position = from;
+
+		while (regionStart < to) {
+			final int regionSize = (int) Math.min(REGION_SIZE, to - regionStart);
+			final boolean lastRegion = regionStart + regionSize == to;
+			final MappedByteBuffer buffer = channel.map(MapMode.READ_ONLY, regionStart, regionSize);
+
+			int lineStart = 0;
+			for (int i = 0; i < regionSize; i++) {
+				if (buffer.get(i) == '\n') {
+					// the position covers the line before it is handed over to the consumer
+					position = regionStart + i + 1;
+					parseLine(buffer, lineStart, i, regionStart, consumer);
+					lineStart = i + 1;
+				}
+			}
+
+			if (lastRegion) {
+				// the last line of the feed need not end with a line separator, unless it could be still written
+				if (lineStart < regionSize && !completeLines) {
+					position = to;
+					parseLine(buffer, lineStart, regionSize, regionStart, consumer);
+				}
+				break;
+			}
+			if (lineStart == 0) {
+				throw new IOException("Line exceeds " + REGION_SIZE + " bytes at offset " + regionStart
+						+ " in data feed " + feedPath);
+			}
+			// continue from the start of the incomplete line
+			regionStart += lineStart;
+		}
+	}
+
+	/**
+	 * Decodes the fields of a single line and hands over the instruction to
+	 * the consumer.
+	 */
+	private void parseLine(final MappedByteBuffer buffer, final int from, final int to, final long regionStart,
+			final Consumer<Instruction> consumer) {
+		int end = to;
+		if (end > from && buffer.get(end - 1) == '\r') {
+			end--;
+		}
+		if (end == from) {
+			// skip the empty lines
+			return;
+		}
+
+		int field = 0;
+		fieldStarts[field++] = from;
+		for (int i = from; i < end; i++) {
+			final byte b = buffer.get(i);
+			if (b == DELIMETER) {
+				if (field == FIELD_COUNT) {
+					throw invalidLine(regionStart + from);
+				}
+				fieldStarts[field++] = i + 1;
+			} else if (b == QUOTE) {
+				consumer.accept(parseQuotedLine(buffer, from, end, regionStart));
+				return;
+			}
+		}
+		if (field != FIELD_COUNT) {
+			throw invalidLine(regionStart + from);
+		}
+		fieldStarts[FIELD_COUNT] = end + 1;
+
+		final int entityId = entities.getId(buffer, fieldStarts[0], fieldEnd(0));
+		final TradeTxn tradeTxn = parseTradeTxn(buffer, fieldStarts[1], fieldEnd(1));
+		final int currencyId = currencies.getId(buffer, fieldStarts[3], fieldEnd(3));
+		final LocalDate instructionDate = parseDate(buffer, fieldStarts[4], fieldEnd(4));
+		final LocalDate settlementDate = parseDate(buffer, fieldStarts[5], fieldEnd(5));
+		final int units = (int) parseLong(buffer, fieldStarts[6], fieldEnd(6), Integer.MAX_VALUE);
+
+		if (parseDecimal(buffer, fieldStarts[2], fieldEnd(2))) {
+			final long agreedFx = decimalUnscaled;
+			final int agreedFxScale = decimalScale;
+
+			if (parseDecimal(buffer, fieldStarts[7], fieldEnd(7))) {
+				// the decimals are handed over as unscaled values, no BigDecimal is created
+				consumer.accept(new Instruction(entityId, tradeTxn, agreedFx, agreedFxScale, currencyId,
+						instructionDate, settlementDate, units, decimalUnscaled, decimalScale));
+				return;
+			}
+		}
+
+		// not a plain decimal which fits a long - use the text constructor
+		consumer.accept(new Instruction(EntityDictionary.getInstance().getEntity(entityId), tradeTxn,
+				new BigDecimal(text(buffer, fieldStarts[2], fieldEnd(2))),
+				CurrencyRegistry.getInstance().getCurrency(currencyId),
+				instructionDate, settlementDate, units,
+				new BigDecimal(text(buffer, fieldStarts[7], fieldEnd(7)))));
+	}
+
+	private int fieldEnd(final int field) {
+		return fieldStarts[field + 1] - 1;
+	}
+
+	/**
+	 * A line with quoted fields is parsed with the opencsv parser, same as in
+	 * the <code>InstructionsCSVReader</code>.
+	 */
+	private Instruction parseQuotedLine(final MappedByteBuffer buffer, final int from, final int to,
+			final long regionStart) {
+		final byte[] line = new byte[to - from];
+		for (int i = from; i < to; i++) {
+			line[i - from] = buffer.get(i);
+		}
+		try {
+			final String[] fields = new CSVParser().parseLine(new String(line, charset));
+			final DateTimeFormatter dateFormatter = DateTimeFormatter.ofPattern(
+					DailyTradeReportingConstants.INSTRUCTIONS_DATE_FORMAT);
+			return new Instruction(
+					fields[0],
+					TradeTxn.getEnum(fields[1]),
+					new BigDecimal(fields[2]),
+					fields[3],
+					LocalDate.parse(fields[4], dateFormatter),
+					LocalDate.parse(fields[5], dateFormatter),
+					Integer.parseInt(fields[6]),
+					new BigDecimal(fields[7]));
+		} catch (IOException | RuntimeException e) {
+			throw new IllegalArgumentException("Invalid instruction at offset " + (regionStart + from)
+					+ " in data feed " + feedPath, e);
+		}
+	}
+
+	private static TradeTxn parseTradeTxn(final MappedByteBuffer buffer, final int from, final int to) {
+		if (to - from == 1) {
+			final byte txn = buffer.get(from);
+			if (txn == 'B' || txn == 'b') {
+				return TradeTxn.BUY;
+			} else if (txn == 'S' || txn == 's') {
+				return TradeTxn.SELL;
+			}
+		}
+		final byte[] text = new byte[to - from];
+		for (int i = from; i < to; i++) {
+			text[i - from] = buffer.get(i);
+		}
+		// report the invalid input same as the enum lookup
+		return TradeTxn.getEnum(new String(text, Charset.defaultCharset()));
+	}
+
+	/**
+	 * Decodes a plain decimal number like 100.25 into the unscaled value and
+	 * the scale, same as <code>new BigDecimal("100.25")</code>. The result is
+	 * held in <code>decimalUnscaled</code> and <code>decimalScale</code>.
+	 *
+	 * @return false if the number is not a plain decimal which fits a long
+	 */
+	private boolean parseDecimal(final MappedByteBuffer buffer, final int from, final int to) {
+		int i = from;
+		boolean negative = false;
+		if (i < to && (buffer.get(i) == '-' || buffer.get(i) == '+')) {
+			negative = buffer.get(i) == '-';
+			i++;
+		}
+
+		long unscaled = 0;
+		int scale = -1;
+		int digits = 0;
+		for (; i < to; i++) {
+			final byte b = buffer.get(i);
+			if (b == '.' && scale < 0) {
+				scale = 0;
+				continue;
+			}
+			if (b < '0' || b > '9' || unscaled > (Long.MAX_VALUE - 9) / 10) {
+				return false;
+			}
+			unscaled = unscaled * 10 + (b - '0');
+			digits++;
+			if (scale >= 0) {
+				scale++;
+			}
+		}
+		if (digits == 0) {
+			return false;
+		}
+		decimalUnscaled = negative ? -unscaled : unscaled;
+		decimalScale = Math.max(scale, 0);
+		return true;
+	}
+
+	private static long parseLong(final MappedByteBuffer buffer, final int from, final int to, final long max) {
+		if (from == to) {
+			throw new NumberFormatException("For input string: \"\"");
+		}
+		long value = 0;
+		for (int i = from; i < to; i++) {
+			final byte b = buffer.get(i);
+			if (b < '0' || b > '9' || (value = value * 10 + (b - '0')) > max) {
+				return Integer.parseInt(text(buffer, from, to));
+			}
+		}
+		return value;
+	}
+
+	/**
+	 * Decodes a date in the format dd MMM yyyy, eg: 01 Jan 2017. A day after
+	 * the end of the month, eg: 31 Feb 2017, is resolved by the formatter to
+	 * the last day of the month, the same as by the CSV reader.
+	 */
+	private static LocalDate parseDate(final MappedByteBuffer buffer, final int from, final int to) {
+		if (to - from == 11 && buffer.get(from + 2) == ' ' && buffer.get(from + 6) == ' ') {
+			final int month = parseMonth(buffer, from + 3);
+			if (month > 0) {
+				final int year = (int) parseLong(buffer, from + 7, to, 9999);
+				final int day = (int) parseLong(buffer, from, from + 2, 31);
+				if (day > 0 && day <= Month.of(month).length(Year.isLeap(year))) {
+					return LocalDate.of(year, month, day);
+				}
+			}
+		}
+		// not in the expected format or not a day of the month - resolved the same as by the formatter
+		return LocalDate.parse(text(buffer, from, to), DateTimeFormatter.ofPattern(
+				DailyTradeReportingConstants.INSTRUCTIONS_DATE_FORMAT));
+	}
+
+	private static int parseMonth(final MappedByteBuffer buffer, final int from) {
+		for (int month = 0; month < MONTHS.length; month++) {
+			final String name = MONTHS[month];
+			if (Character.toUpperCase(buffer.get(from)) == name.charAt(0)
+					&& Character.toUpperCase(buffer.get(from + 1)) == name.charAt(1)
+					&& Character.toUpperCase(buffer.get(from + 2)) == name.charAt(2)) {
+				return month + 1;
+			}
+		}
+		return 0;
+	}
+
+	private static String text(final MappedByteBuffer buffer, final int from, final int to) {
+		final byte[] text = new byte[to - from];
+		for (int i = from; i < to; i++) {
+			text[i - from] = buffer.get(i);
+		}
+		return new String(text, Charset.defaultCharset());
+	}
+
+	private IllegalArgumentException invalidLine(final long offset) {
+		return new IllegalArgumentException("Invalid instruction at offset " + offset + " in data feed " + feedPath);
+	}
+}
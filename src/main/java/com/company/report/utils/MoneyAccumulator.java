@@ -0,0 +1,111 @@
+package com.company.report.utils;
+
+import java.math.BigDecimal;
+
+import com.company.report.entity.Instruction;
+
+/**
+ * The class sums up the trade amounts. The amounts are added as fixed point
+ * amounts to a <code>long</code>, which does not allocate any object. The sum
+ * moves over to <code>BigDecimal</code> only for an amount which can not be
+ * held as a fixed point amount, or when the <code>long</code> sum would
+ * overflow.
+ *
+ * NOTE: The class is not thread safe, see <code>StripedMoneyAccumulator</code>
+ * for the sums which are added by several threads.
+ *
+ * @author prejith.devarajan
+ *
+ */
+public class MoneyAccumulator {
+
+	// The fixed point part of the sum
+	private long amount;
+
+	// The part of the sum which could not be held as fixed point, null if none
+	private BigDecimal overflow;
+
+	/**
+	 * Adds the trade amount of the instruction
+	 *
+	 * @param instruction
+	 */
+	public void add(final Instruction instruction) {
+		final long tradeAmount = instruction.getFixedPointTradeAmount();
+
+		if (tradeAmount == FixedPointMath.OVERFLOW) {
+			add(instruction.getTradeAmount());
+		} else {
+			add(tradeAmount);
+		}
+	}
+
+	/**
+	 * Adds a fixed point amount
+	 *
+	 * @param fixedPointAmount
+	 */
+	public void add(final long fixedPointAmount) {
+		final long sum = amount + fixedPointAmount;
+
+		if (((amount ^ sum) & (fixedPointAmount ^ sum)) < 0) {
+			// the long sum overflows - move the sum so far to the decimal part
+			add(FixedPointMath.toBigDecimal(amount));
+			amount = fixedPointAmount;
+		} else {
+			amount = sum;
+		}
+	}
+
+	/**
+	 * Adds a decimal amount
+	 *
+	 * @param decimalAmount
+	 */
+	public void add(final BigDecimal decimalAmount) {
+		overflow = overflow == null ? decimalAmount : overflow.add(decimalAmount);
+	}
+
+	/**
+	 * Adds the sum of another accumulator
+	 *
+	 * @param accumulator
+	 */
+	public void add(final MoneyAccumulator accumulator) {
+		accumulator.addTo(this);
+	}
+
+	/**
+	 * Adds the sum of this accumulator to another accumulator
+	 *
+	 * @param accumulator
+	 */
+	protected void addTo(final MoneyAccumulator accumulator) {
+		accumulator.add(amount);
+		if (overflow != null) {
+			accumulator.add(overflow);
+		}
+	}
+
+	/**
+	 * @return true if the whole sum is held as fixed point amount
+	 */
+	public boolean isFixedPoint() {
+		return overflow == null;
+	}
+
+	/**
+	 * @return the fixed point part of the sum
+	 */
+	public long getFixedPointAmount() {
+		return amount;
+	}
+
+	/**
+	 * @return the sum as <code>BigDecimal</code>
+	 */
+	public BigDecimal toBigDecimal() {
+		final BigDecimal sum = FixedPointMath.toBigDecimal(amount);
+		return overflow == null ? sum : overflow.add(sum);
+	}
+}
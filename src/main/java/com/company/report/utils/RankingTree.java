@@ -0,0 +1,248 @@
+package com.company.report.utils;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * The class maintains the ranking of the keys by their trade amount while the
+ * trade amounts are added. The keys are held in an order statistic tree - a
+ * treap ordered by the trade amount (highest first) where each node knows the
+ * size of its sub tree. The tree answers the rank of a key and the top keys
+ * without sorting all the keys.
+ *
+ * Updating the trade amount of a key moves its node in the tree, which takes
+ * O(log n) and does not allocate once the key is known. Keys with the same
+ * trade amount are ranked by their natural order.
+ *
+ * NOTE: The class is not thread safe.
+ *
+ * @author prejith.devarajan
+ *
+ * @param <K>
+ *            the type of the keys
+ */
+public class RankingTree<K extends Comparable<? super K>> {
+
+	// The node for each key
+	private final Map<K, Node<K>> nodes = new HashMap<>();
+
+	private final Random priorities = new Random();
+
+	private Node<K> root;
+
+	/**
+	 * Sets the trade amount of the key to the sum of the accumulator. The key
+	 * is added to the ranking if not already available.
+	 *
+	 * @param key
+	 * @param accumulator
+	 *            the trade amount of the key
+	 */
+	public void update(final K key, final MoneyAccumulator accumulator) {
+		update(key, accumulator.getFixedPointAmount(), accumulator.isFixedPoint() ? null : accumulator.toBigDecimal());
+	}
+
+	/**
+	 * Sets the trade amount of the key. The key is added to the ranking if not
+	 * already available.
+	 *
+	 * @param key
+	 * @param fixedPointAmount
+	 *            the trade amount of the key as fixed point amount
+	 * @param decimalAmount
+	 *            the trade amount of the key if it could not be held as fixed
+	 *            point amount, otherwise null
+	 */
+	public void update(final K key, final long fixedPointAmount, final BigDecimal decimalAmount) {
+		Node<K> node = nodes.get(key);
+
+		if (node == null) {
+			node = new Node<>(key, priorities.nextInt());
+			nodes.put(key, node);
+		} else {
+			root = remove(root, node);
+		}
+
+		node.amount = fixedPointAmount;
+		node.decimalAmount = decimalAmount;
+		node.left = null;
+		node.right = null;
+		node.size = 1;
+		root = insert(root, node);
+	}
+
+	/**
+	 * Returns the rank of the key, the key with the highest trade amount is
+	 * ranked 1.
+	 *
+	 * @param key
+	 * @return the rank of the key, 0 if the key is not available
+	 */
+	public int getRank(final K key) {
+		final Node<K> node = nodes.get(key);
+		if (node == null) {
+			return 0;
+		}
+
+		int rank = 1;
+		Node<K> current = root;
+		while (current != node) {
+			if (compare(node, current) < 0) {
+				current = current.left;
+			} else {
+				rank += size(current.left) + 1;
+				current = current.right;
+			}
+		}
+		return rank + size(node.left);
+	}
+
+	/**
+	 * Returns the top keys by the trade amount.
+	 *
+	 * @param top
+	 *            the number of top keys, all the keys if 0
+	 * @return the keys with their trade amount, sorted by the trade amount
+	 */
+	public Map<K, BigDecimal> getTop(final int top) {
+		final Map<K, BigDecimal> ranking = new LinkedHashMap<>();
+		collect(root, top <= 0 ? nodes.size() : top, ranking);
+		return ranking;
+	}
+
+	/**
+	 * @return the number of keys in the ranking
+	 */
+	public int size() {
+		return nodes.size();
+	}
+
+	private void collect(final Node<K> node, final int top, final Map<K, BigDecimal> ranking) {
+		if (node == null || ranking.size() >= top) {
+			return;
+		}
+		collect(node.left, top, ranking);
+		if (ranking.size() < top) {
+			ranking.put(node.key, node.getAmount());
+			collect(node.right, top, ranking);
+		}
+	}
+
+	private Node<K> insert(final Node<K> current, final Node<K> node) {
+		if (current == null) {
+			return node;
+		}
+
+		Node<K> result = current;
+		if (compare(node, current) < 0) {
+			current.left = insert(current.left, node);
+			if (current.left.priority > current.priority) {
+				result = rotateRight(current);
+			}
+		} else {
+			current.right = insert(current.right, node);
+			if (current.right.priority > current.priority) {
+				result = rotateLeft(current);
+			}
+		}
+		update(current);
+		update(result);
+		return result;
+	}
+
+	private Node<K> remove(final Node<K> current, final Node<K> node) {
+		if (current == node) {
+			return join(current.left, current.right);
+		}
+
+		if (compare(node, current) < 0) {
+			current.left = remove(current.left, node);
+		} else {
+			current.right = remove(current.right, node);
+		}
+		update(current);
+		return current;
+	}
+
+	private Node<K> join(final Node<K> left, final Node<K> right) {
+		if (left == null) {
+			return right;
+		} else if (right == null) {
+			return left;
+		} else if (left.priority > right.priority) {
+			left.right = join(left.right, right);
+			update(left);
+			return left;
+		} else {
+			right.left = join(left, right.left);
+			update(right);
+			return right;
+		}
+	}
+
+	private Node<K> rotateRight(final Node<K> node) {
+		final Node<K> left = node.left;
+		node.left = left.right;
+		left.right = node;
+		return left;
+	}
+
+	private Node<K> rotateLeft(final Node<K> node) {
+		final Node<K> right = node.right;
+		node.right = right.left;
+		right.left = node;
+		return right;
+	}
+
+	private static <K> void update(final Node<K> node) {
+		node.size = size(node.left) + size(node.right) + 1;
+	}
+
+	private static <K> int size(final Node<K> node) {
+		return node == null ? 0 : node.size;
+	}
+
+	/**
+	 * Orders the nodes by the trade amount, highest first, and then by the key
+	 */
+	private int compare(final Node<K> node1, final Node<K> node2) {
+		final int compare = node1.decimalAmount == null && node2.decimalAmount == null
+				? Long.compare(node2.amount, node1.amount)
+				: node2.getAmount().compareTo(node1.getAmount());
+
+		return compare != 0 ? compare : node1.key.compareTo(node2.key);
+	}
+
+	/**
+	 * The node of the tree for a key
+	 */
+	private static class Node<K> {
+
+		private final K key;
+
+		private final int priority;
+
+		// The fixed point trade amount, used if there is no decimal trade amount
+		private long amount;
+
+		private BigDecimal decimalAmount;
+
+		private int size = 1;
+
+		private Node<K> left;
+
+		private Node<K> right;
+
+		Node(final K key, final int priority) {
+			this.key = key;
+			this.priority = priority;
+		}
+
+		BigDecimal getAmount() {
+			return decimalAmount == null ? FixedPointMath.toBigDecimal(amount) : decimalAmount;
+		}
+	}
+}
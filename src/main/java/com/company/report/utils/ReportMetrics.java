@@ -0,0 +1,287 @@
+package com.company.report.utils;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+import com.company.report.entity.Instruction;
+
+/**
+ * The metrics of the report generation. The duration of each stage - parsing
+ * an instruction, calculating its settlement date, adding it to the reports,
+ * sorting a ranking and printing the reports of a date - is recorded in a
+ * <code>LatencyHistogram</code>, along with the number of instructions read
+ * and an estimate of the bytes allocated for each instruction.
+ *
+ * The metrics are recorded only if the system property
+ * <code>report.metrics</code> or <code>report.metrics.jmx</code> is set. The
+ * flag is read once, so the code which records the metrics is removed by the
+ * JIT compiler when the metrics are not required.
+ *
+ * 	final long start = ReportMetrics.start();
+ * 	...
+ * 	ReportMetrics.record(Stage.SETTLEMENT, start);
+ *
+ * @author prejith.devarajan
+ *
+ */
+public class ReportMetrics implements ReportMetricsMXBean {
+
+	/**
+	 * The stages of the report generation
+	 */
+	public enum Stage {
+		PARSING, SETTLEMENT, AGGREGATION, RANKING, PRINTING
+	}
+
+	private static final boolean ENABLED = Boolean.getBoolean(DailyTradeReportingConstants.METRICS_PROPERTY)
+			|| Boolean.getBoolean(DailyTradeReportingConstants.METRICS_JMX_PROPERTY);
+
+	// The number of instructions over which the allocated bytes are measured
+	private static final int ALLOCATION_BATCH = 1024;
+
+	private static final ReportMetrics instance = new ReportMetrics();
+
+	private final LatencyHistogram[] histograms = new LatencyHistogram[Stage.values().length];
+
+	private final LongAdder rows = new LongAdder();
+
+	// The instructions and the bytes allocated while they are read, for the estimate of the bytes for each instruction
+	private final LongAdder allocationRows = new LongAdder();
+	private final LongAdder allocatedBytes = new LongAdder();
+
+	private final long startNanos = System.nanoTime();
+
+	private ReportMetrics() {
+		for (int stage = 0; stage < histograms.length; stage++) {
+			histograms[stage] = new LatencyHistogram();
+		}
+	}
+
+	/**
+	 * The method returns the singleton instance for the ReportMetrics class
+	 *
+	 * @return the instance of ReportMetrics
+	 */
+	public static ReportMetrics getInstance() {
+		return instance;
+	}
+
+	/**
+	 * @return true if the metrics are recorded
+	 */
+	public static boolean isEnabled() {
+		return ENABLED;
+	}
+
+	/**
+	 * @return the start time of a stage, 0 if the metrics are not recorded
+	 */
+	public static long start() {
+		return ENABLED ? System.nanoTime() : 0;
+	}
+
+	/**
+	 * Records the duration of a stage
+	 *
+	 * @param stage
+	 *            the stage of the report generation
+	 * @param start
+	 *            the start time of the stage from <code>start()</code>
+	 */
+	public static void record(final Stage stage, final long start) {
+		if (ENABLED) {
+			instance.histograms[stage.ordinal()].record(System.nanoTime() - start);
+		}
+	}
+
+	/**
+	 * Wraps the consumer of the instructions read by a reader, so that the
+	 * time taken to parse each instruction is recorded - the time between
+	 * the consumer returns and it is called for the next instruction. The
+	 * consumer is returned as is if the metrics are not recorded.
+	 *
+	 * NOTE: The wrapped consumer is expected to be called by a single thread.
+	 *
+	 * @param consumer
+	 *            the consumer for each instruction
+	 * @return the consumer which records the metrics
+	 */
+	public static Consumer<Instruction> timeParsing(final Consumer<Instruction> consumer) {
+		return ENABLED ? new ParsingTimer(consumer) : consumer;
+	}
+
+	/**
+	 * Registers the metrics with the platform MBean server
+	 *
+	 * @throws JMException
+	 */
+	public void register() throws JMException {
+		ManagementFactory.getPlatformMBeanServer().registerMBean(this,
+				new ObjectName("com.company.report:type=ReportMetrics"));
+	}
+
+	/**
+	 * @param stage
+	 * @return the histogram of the durations of the stage
+	 */
+	public LatencyHistogram getHistogram(final Stage stage) {
+		return histograms[stage.ordinal()];
+	}
+
+	@Override
+	public long getRows() {
+		return rows.sum();
+	}
+
+	@Override
+	public double getRowsPerSecond() {
+		final long elapsed = System.nanoTime() - startNanos;
+		return elapsed <= 0 ? 0 : getRows() * (double) TimeUnit.SECONDS.toNanos(1) / elapsed;
+	}
+
+	@Override
+	public int getEntities() {
+		return EntityDictionary.getInstance().size();
+	}
+
+	@Override
+	public double getAllocatedBytesPerRow() {
+		final long measuredRows = allocationRows.sum();
+		return measuredRows == 0 ? 0 : (double) allocatedBytes.sum() / measuredRows;
+	}
+
+	@Override
+	public Map<String, Long> getStageCounts() {
+		return getStageValues(LatencyHistogram::getCount);
+	}
+
+	@Override
+	public Map<String, Double> getStageMeanNanos() {
+		return getStageValues(LatencyHistogram::getMean);
+	}
+
+	@Override
+	public Map<String, Long> getStageP99Nanos() {
+		return getStageValues(histogram -> histogram.getPercentile(99));
+	}
+
+	@Override
+	public String getSummary() {
+		final StringBuilder summary = new StringBuilder();
+		try {
+			writeSummary(summary);
+		} catch (IOException e) {
+			// a StringBuilder does not throw IOException
+			throw new UncheckedIOException(e);
+		}
+		return summary.toString();
+	}
+
+	/**
+	 * Writes the summary of all the metrics in the JSON format, eg: at the end
+	 * of a run
+	 *
+	 * @param out
+	 *            the output for the summary
+	 * @throws IOException
+	 */
+	public void writeSummary(final Appendable out) throws IOException {
+		out.append("{\"rows\":").append(String.valueOf(getRows()))
+			.append(",\"rowsPerSecond\":").append(format(getRowsPerSecond()))
+			.append(",\"entities\":").append(String.valueOf(getEntities()))
+			.append(",\"allocatedBytesPerRow\":").append(format(getAllocatedBytesPerRow()))
+			.append(",\"stages\":{");
+
+		for (Stage stage : Stage.values()) {
+			final LatencyHistogram histogram = getHistogram(stage);
+			out.append(stage.ordinal() == 0 ? "" : ",")
+				.append('"').append(stage.name()).append("\":{")
+				.append("\"count\":").append(String.valueOf(histogram.getCount()))
+				.append(",\"totalNanos\":").append(String.valueOf(histogram.getTotal()))
+				.append(",\"meanNanos\":").append(format(histogram.getMean()))
+				.append(",\"p50Nanos\":").append(String.valueOf(histogram.getPercentile(50)))
+				.append(",\"p90Nanos\":").append(String.valueOf(histogram.getPercentile(90)))
+				.append(",\"p99Nanos\":").append(String.valueOf(histogram.getPercentile(99)))
+				.append(",\"p999Nanos\":").append(String.valueOf(histogram.getPercentile(99.9)))
+				.append(",\"maxNanos\":").append(String.valueOf(histogram.getMax()))
+				.append('}');
+		}
+		out.append("}}").append(System.lineSeparator());
+	}
+
+	private <T> Map<String, T> getStageValues(final Function<LatencyHistogram, T> value) {
+		final Map<String, T> values = new LinkedHashMap<>();
+		for (Stage stage : Stage.values()) {
+			values.put(stage.name(), value.apply(getHistogram(stage)));
+		}
+		return values;
+	}
+
+	private static String format(final double value) {
+		return String.format(Locale.ROOT, "%.1f", value);
+	}
+
+	/**
+	 * The consumer which records the parsing time of each instruction, and
+	 * the bytes allocated by the thread for each batch of instructions
+	 */
+	private static final class ParsingTimer implements Consumer<Instruction> {
+
+		private final Consumer<Instruction> consumer;
+
+		private final ThreadMXBean threadBean = ManagementFactory.getThreadMXBean();
+
+		private long parseStart = System.nanoTime();
+
+		private int batchRows;
+
+		private long batchAllocated = allocatedBytes();
+
+		ParsingTimer(final Consumer<Instruction> consumer) {
+			this.consumer = consumer;
+		}
+
+		@Override
+		public void accept(final Instruction instruction) {
+			instance.histograms[Stage.PARSING.ordinal()].record(System.nanoTime() - parseStart);
+			instance.rows.increment();
+
+			consumer.accept(instruction);
+
+			if (++batchRows == ALLOCATION_BATCH) {
+				final long allocated = allocatedBytes();
+				if (allocated >= 0 && batchAllocated >= 0) {
+					instance.allocatedBytes.add(allocated - batchAllocated);
+					instance.allocationRows.add(batchRows);
+				}
+				batchAllocated = allocated;
+				batchRows = 0;
+			}
+			parseStart = System.nanoTime();
+		}
+
+		/**
+		 * @return the bytes allocated by the current thread, -1 if not
+		 *         supported by the JVM
+		 */
+		private long allocatedBytes() {
+			if (threadBean instanceof com.sun.management.ThreadMXBean) {
+				return ((com.sun.management.ThreadMXBean) threadBean)
+						.getThreadAllocatedBytes(Thread.currentThread().getId());
+			}
+			return -1;
+		}
+	}
+}
@@ -0,0 +1,59 @@
+package com.company.report.utils;
+
+import java.util.Map;
+
+/**
+ * The management interface of the report metrics, registered with the
+ * platform MBean server as <code>com.company.report:type=ReportMetrics</code>
+ * when the system property <code>report.metrics.jmx</code> is set. The metrics
+ * could then be watched with a JMX client, eg: jconsole, while the engine
+ * follows a data feed.
+ *
+ * @author prejith.devarajan
+ *
+ */
+public interface ReportMetricsMXBean {
+
+	/**
+	 * @return the number of instructions read
+	 */
+	long getRows();
+
+	/**
+	 * @return the number of instructions read for each second since the
+	 *         metrics are started
+	 */
+	double getRowsPerSecond();
+
+	/**
+	 * @return the number of distinct entities seen
+	 */
+	int getEntities();
+
+	/**
+	 * @return the estimate of the bytes allocated while an instruction is
+	 *         read and added to the reports
+	 */
+	double getAllocatedBytesPerRow();
+
+	/**
+	 * @return the number of durations recorded for each stage
+	 */
+	Map<String, Long> getStageCounts();
+
+	/**
+	 * @return the mean duration in nanoseconds for each stage
+	 */
+	Map<String, Double> getStageMeanNanos();
+
+	/**
+	 * @return the 99th percentile of the durations in nanoseconds for each
+	 *         stage
+	 */
+	Map<String, Long> getStageP99Nanos();
+
+	/**
+	 * @return the summary of all the metrics in the JSON format
+	 */
+	String getSummary();
+}
@@ -0,0 +1,100 @@
+package com.company.report.utils;
+
+import java.math.BigDecimal;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import com.company.report.entity.Instruction;
+
+/**
+ * The thread safe counterpart of <code>MoneyAccumulator</code>. The sum is
+ * striped over several cells in the style of
+ * <code>java.util.concurrent.atomic.LongAdder</code> - each thread adds to the
+ * cell picked by its thread id, so the threads adding at the same time seldom
+ * wait for each other. The cells are created when a thread first adds to them.
+ *
+ * Each cell is a <code>MoneyAccumulator</code>, so the amounts which could not
+ * be held as fixed point amount are summed up the same way. The sum does not
+ * depend on the order in which the amounts are added.
+ *
+ * @author prejith.devarajan
+ *
+ */
+public class StripedMoneyAccumulator extends MoneyAccumulator {
+
+	// The number of cells, a power of two
+	private static final int STRIPES = Integer.highestOneBit(
+			Math.min(Math.max(Runtime.getRuntime().availableProcessors(), 1), 64) * 2 - 1);
+
+	private final AtomicReferenceArray<MoneyAccumulator> cells = new AtomicReferenceArray<>(STRIPES);
+
+	@Override
+	public void add(final Instruction instruction) {
+		final MoneyAccumulator cell = getCell();
+		synchronized (cell) {
+			cell.add(instruction);
+		}
+	}
+
+	@Override
+	public void add(final long fixedPointAmount) {
+		final MoneyAccumulator cell = getCell();
+		synchronized (cell) {
+			cell.add(fixedPointAmount);
+		}
+	}
+
+	@Override
+	public void add(final BigDecimal decimalAmount) {
+		final MoneyAccumulator cell = getCell();
+		synchronized (cell) {
+			cell.add(decimalAmount);
+		}
+	}
+
+	@Override
+	protected void addTo(final MoneyAccumulator accumulator) {
+		for (int stripe = 0; stripe < STRIPES; stripe++) {
+			final MoneyAccumulator cell = cells.get(stripe);
+			if (cell != null) {
+				synchronized (cell) {
+					accumulator.add(cell);
+				}
+			}
+		}
+	}
+
+	@Override
+	public boolean isFixedPoint() {
+		return sum().isFixedPoint();
+	}
+
+	@Override
+	public long getFixedPointAmount() {
+		return sum().getFixedPointAmount();
+	}
+
+	@Override
+	public BigDecimal toBigDecimal() {
+		return sum().toBigDecimal();
+	}
+
+	/**
+	 * @return the sum of all the cells so far
+	 */
+	private MoneyAccumulator sum() {
+		final MoneyAccumulator sum = new MoneyAccumulator();
+		addTo(sum);
+		return sum;
+	}
+
+	private MoneyAccumulator getCell() {
+		final int stripe = (int) Thread.currentThread().getId() & (STRIPES - 1);
+
+		final MoneyAccumulator cell = cells.get(stripe);
+		if (cell != null) {
+			return cell;
+		}
+		cells.compareAndSet(stripe, null, new MoneyAccumulator());
+		return cells.get(stripe);
+	}
+}
@@ -0,0 +1,47 @@
+package com.company.custom;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.company.report.ReportFactory;
+import com.company.report.handler.IReportGenerator;
+import com.company.report.handler.impl.FusedReportGenerator;
+import com.company.report.handler.impl.IncomingAmountReportGenerator;
+import com.company.report.handler.impl.IncomingRankingReportGenerator;
+import com.company.report.handler.impl.OutgoingAmountReportGenerator;
+import com.company.report.handler.impl.OutgoingRankingReportGenerator;
+import com.company.report.utils.DailyTradeReportingConstants;
+
+/**
+ * The test class for the report generators registered with the factory.
+ *
+ * @author prejith.devarajan
+ *
+ */
+public class ReportFactoryTest {
+
+	/**
+	 * Test the generators are loaded in the order of the service provider
+	 * configuration file, or replaced by the fused generator, and the registry
+	 * could not be changed by the caller
+	 */
+	@Test
+	public void testReportGenerators() {
+		final IReportGenerator[] generators = ReportFactory.getInstance().getReportGenerators();
+
+		if (Boolean.parseBoolean(System.getProperty(DailyTradeReportingConstants.GENERATORS_FUSED_PROPERTY,
+				DailyTradeReportingConstants.GENERATORS_FUSED_DEFAULT))) {
+			Assert.assertEquals(1, generators.length);
+			Assert.assertTrue(generators[0] instanceof FusedReportGenerator);
+		} else {
+			Assert.assertEquals(4, generators.length);
+			Assert.assertTrue(generators[0] instanceof OutgoingRankingReportGenerator);
+			Assert.assertTrue(generators[1] instanceof IncomingRankingReportGenerator);
+			Assert.assertTrue(generators[2] instanceof OutgoingAmountReportGenerator);
+			Assert.assertTrue(generators[3] instanceof IncomingAmountReportGenerator);
+		}
+
+		generators[0] = null;
+		Assert.assertNotNull(ReportFactory.getInstance().getReportGenerators()[0]);
+	}
+}
@@ -1,19 +1,35 @@
 package com.company.custom.bo;
 
 import java.math.BigDecimal;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Random;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import org.junit.Assert;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 
+import com.company.report.ReportFactory;
 import com.company.report.bo.DailyReportBO;
 import com.company.report.entity.Instruction;
+import com.company.report.entity.InstructionStore;
 import com.company.report.entity.TradeReport;
 import com.company.report.entity.TradeTxn;
 import com.company.report.handler.IReport;
+import com.company.report.handler.IReportGenerator;
 import com.company.report.handler.impl.TradeAmountReport;
 import com.company.report.handler.impl.TradeRankingReport;
 
@@ -27,6 +43,9 @@ import com.company.report.handler.impl.TradeRankingReport;
  */
 public class DailyReportBOTest {
 
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
 	@Test
 	public void testGenerateDailyReport() {
 		final Set<Instruction> instructions = new HashSet<>();
@@ -124,6 +143,217 @@ public class DailyReportBOTest {
 		testOutgoingRankingReport(tradeReports, LocalDate.of(2017, 6, 13));
 	}
 
+	/**
+	 * Test the reports generated by several threads at the same time, and the
+	 * reports generated from the columnar store, against the reports generated
+	 * by a single thread
+	 *
+	 * @throws InterruptedException
+	 */
+	@Test
+	public void testGenerateConcurrentReport() throws InterruptedException {
+		final Set<Instruction> instructions = new HashSet<>();
+		final String[] currencies = { "SGD", "AED", "EUR", "SAR" };
+		final Random random = new Random(11);
+
+		for (int i = 0; i < 20000; i++) {
+			instructions.add(new Instruction(
+					"Entity #" + random.nextInt(50),
+					random.nextBoolean() ? TradeTxn.BUY : TradeTxn.SELL,
+					BigDecimal.valueOf(random.nextInt(100) + 1, 2),
+					currencies[random.nextInt(currencies.length)],
+					LocalDate.of(2017, 6, 1),
+					LocalDate.of(2017, 6, 1).plusDays(random.nextInt(30)),
+					random.nextInt(1000) + 1,
+					BigDecimal.valueOf(random.nextInt(100000), 1)));
+		}
+
+		final DailyReportBO reportBO = new DailyReportBO();
+		final Map<LocalDate, Map<TradeReport, IReport>> expectedReports = reportBO.generateDailyReports(instructions);
+		final InstructionStore instructionStore = new InstructionStore();
+		instructions.forEach(instructionStore::add);
+
+		final ConcurrentMap<LocalDate, Map<TradeReport, IReport>> tradeReports = new ConcurrentHashMap<>();
+		final List<Instruction> instructionList = new ArrayList<>(instructions);
+		final List<Thread> producers = new ArrayList<>();
+		for (int producer = 0; producer < 4; producer++) {
+			final int first = producer;
+			producers.add(new Thread(() -> {
+				for (int i = first; i < instructionList.size(); i += 4) {
+					reportBO.generateConcurrentReport(tradeReports, instructionList.get(i));
+				}
+			}));
+		}
+		for (Thread producer : producers) {
+			producer.start();
+		}
+		for (Thread producer : producers) {
+			producer.join();
+		}
+
+		assertSameReports(expectedReports, tradeReports);
+		// the columnar store gives the same reports on every scan
+		assertSameReports(expectedReports, reportBO.generateDailyReports(instructionStore));
+		assertSameReports(expectedReports, reportBO.generateDailyReports(instructionStore));
+	}
+
+	/**
+	 * Test the reports resumed from the checkpoint of a failed run against
+	 * the reports generated for the whole data feed
+	 *
+	 * @throws Exception
+	 */
+	@Test
+	public void testResumeFromCheckpoint() throws Exception {
+		final List<String> lines = Files.readAllLines(
+				Paths.get(getClass().getClassLoader().getResource("trade-intructions.csv").toURI()),
+				StandardCharsets.UTF_8);
+		final Path feedPath = folder.getRoot().toPath().resolve("instructions.csv");
+		final Path checkpointPath = folder.getRoot().toPath().resolve("instructions.checkpoint");
+		final DailyReportBO reportBO = new DailyReportBO();
+
+		Files.write(feedPath, lines, StandardCharsets.UTF_8);
+		final Map<LocalDate, Map<TradeReport, IReport>> expectedReports = reportBO.generateDailyReports(feedPath,
+				checkpointPath, Integer.MAX_VALUE);
+		// the checkpoint of the complete feed is removed
+		Assert.assertFalse(Files.exists(checkpointPath));
+
+		// the first run fails on an invalid line after a checkpoint, the second run reads the rest
+		writeFailingFeed(feedPath, lines);
+		Assert.assertTrue(Files.exists(checkpointPath));
+		Files.write(feedPath, lines, StandardCharsets.UTF_8);
+
+		assertSameReports(expectedReports, reportBO.generateDailyReports(feedPath, checkpointPath, 2));
+		Assert.assertFalse(Files.exists(checkpointPath));
+		// the next run reads the whole feed again
+		assertSameReports(expectedReports, reportBO.generateDailyReports(feedPath, checkpointPath, 2));
+	}
+
+	/**
+	 * Test the checkpoint of a failed run is rejected for another data feed
+	 *
+	 * @throws Exception
+	 */
+	@Test(expected = IOException.class)
+	public void testCheckpointOfAnotherFeed() throws Exception {
+		final List<String> lines = Files.readAllLines(
+				Paths.get(getClass().getClassLoader().getResource("trade-intructions.csv").toURI()),
+				StandardCharsets.UTF_8);
+		final Path feedPath = folder.getRoot().toPath().resolve("instructions.csv");
+
+		writeFailingFeed(feedPath, lines);
+
+		// the feed of the next day is written to the same file
+		final List<String> nextLines = new ArrayList<>(lines);
+		Collections.reverse(nextLines);
+		Files.write(feedPath, nextLines, StandardCharsets.UTF_8);
+		new DailyReportBO().generateDailyReports(feedPath, folder.getRoot().toPath().resolve("instructions.checkpoint"), 2);
+	}
+
+	/*
+	 * Runs the checkpointed report generation for the first half of the lines
+	 * followed by an invalid line, so that a checkpoint is left behind
+	 */
+	private void writeFailingFeed(final Path feedPath, final List<String> lines) throws IOException {
+		final List<String> failingLines = new ArrayList<>(lines.subList(0, lines.size() / 2));
+		failingLines.add("invalid instruction");
+		Files.write(feedPath, failingLines, StandardCharsets.UTF_8);
+		try {
+			new DailyReportBO().generateDailyReports(feedPath,
+					folder.getRoot().toPath().resolve("instructions.checkpoint"), 2);
+			Assert.fail("The invalid instruction is expected to fail the run");
+		} catch (IllegalArgumentException e) {
+			// the checkpoint of the instructions before the invalid line is left
+		}
+	}
+
+	/**
+	 * Test the reports of the feed files of a batch against the reports
+	 * generated for all the instructions in a single feed
+	 *
+	 * @throws Exception
+	 */
+	@Test
+	public void testGenerateBatchReports() throws Exception {
+		final List<String> lines = Files.readAllLines(
+				Paths.get(getClass().getClassLoader().getResource("trade-intructions.csv").toURI()),
+				StandardCharsets.UTF_8);
+		final Path feedPath = folder.getRoot().toPath().resolve("instructions.csv");
+		final DailyReportBO reportBO = new DailyReportBO();
+
+		Files.write(feedPath, lines, StandardCharsets.UTF_8);
+		final Map<LocalDate, Map<TradeReport, IReport>> expectedReports = reportBO.generateDailyReports(feedPath, 1);
+
+		// the instructions are spread over the feeds of the batch
+		final List<Path> feedPaths = new ArrayList<>();
+		for (int feed = 0; feed < 3; feed++) {
+			final List<String> feedLines = new ArrayList<>();
+			for (int line = feed; line < lines.size(); line += 3) {
+				feedLines.add(lines.get(line));
+			}
+			feedPaths.add(Files.write(folder.getRoot().toPath().resolve("feed-" + feed + ".csv"), feedLines,
+					StandardCharsets.UTF_8));
+		}
+
+		assertSameReports(expectedReports, reportBO.generateBatchReports(feedPaths, 1));
+		assertSameReports(expectedReports, reportBO.generateBatchReports(feedPaths, 4));
+	}
+
+	/**
+	 * Test the generators whose reports could not be merged are rejected for
+	 * the multi-worker ingestion
+	 */
+	@Test
+	public void testCheckMergeable() {
+		// the reports of the built-in generators could be merged
+		DailyReportBO.checkMergeable(ReportFactory.getInstance().getReportGenerators());
+		Assert.assertTrue(new DailyReportBO().isMergeable());
+
+		final IReportGenerator textGenerator = (tradeReport, instruction) -> {
+		};
+		try {
+			DailyReportBO.checkMergeable(new IReportGenerator[] { textGenerator });
+			Assert.fail("The generator whose reports could not be merged is expected to be rejected");
+		} catch (IllegalStateException e) {
+			Assert.assertTrue(e.getMessage().contains(textGenerator.getClass().getName()));
+		}
+	}
+
+	/**
+	 * Test the generators which do not add the thread safe reports are
+	 * rejected for the concurrent aggregation
+	 */
+	@Test
+	public void testCheckConcurrent() {
+		DailyReportBO.checkConcurrent(ReportFactory.getInstance().getReportGenerators());
+
+		final IReportGenerator textGenerator = (tradeReport, instruction) -> {
+		};
+		try {
+			DailyReportBO.checkConcurrent(new IReportGenerator[] { textGenerator });
+			Assert.fail("The generator without the concurrent report is expected to be rejected");
+		} catch (IllegalStateException e) {
+			Assert.assertTrue(e.getMessage().contains(textGenerator.getClass().getName()));
+		}
+	}
+
+	private void assertSameReports(final Map<LocalDate, Map<TradeReport, IReport>> expectedReports,
+			final Map<LocalDate, Map<TradeReport, IReport>> tradeReports) {
+		Assert.assertEquals(expectedReports.keySet(), tradeReports.keySet());
+		expectedReports.forEach((date, expectedReport) -> {
+			for (TradeReport report : new TradeReport[] { TradeReport.DAILY_INCOMING_AMOUNT_REPORT,
+					TradeReport.DAILY_OUTGOING_AMOUNT_REPORT }) {
+				Assert.assertEquals(((TradeAmountReport) expectedReport.get(report)).getAmount(),
+						((TradeAmountReport) tradeReports.get(date).get(report)).getAmount());
+			}
+			for (TradeReport report : new TradeReport[] { TradeReport.DAILY_INCOMING_RANKING_REPORT,
+					TradeReport.DAILY_OUTGOING_RANKING_REPORT }) {
+				Assert.assertEquals(((TradeRankingReport) expectedReport.get(report)).getRanking(),
+						((TradeRankingReport) tradeReports.get(date).get(report)).getRanking());
+			}
+		});
+	}
+
 	/**
 	 * Test the incoming trade amount report - sum of all SELL transactions for a specific date
 	 *
@@ -164,6 +394,10 @@ public class DailyReportBOTest {
 		Assert.assertEquals("Entity #2", incomingRanking.getRanking().keySet().toArray()[0]);
 		Assert.assertEquals("Entity #1", incomingRanking.getRanking().keySet().toArray()[1]);
 		Assert.assertEquals("Entity #3", incomingRanking.getRanking().keySet().toArray()[2]);
+
+		// the top entities are selected in the same order
+		Assert.assertArrayEquals(new Object[] { "Entity #2", "Entity #1" },
+				incomingRanking.getRanking(2).keySet().toArray());
 	}
 
 	/**
@@ -121,4 +121,31 @@ public class SettlementDateBOTest {
 		// check against the expected value - same settlement date as in instruction
 		Assert.assertEquals(LocalDate.of(2017, 6, 19), instruction.getSettlementDate());
 	}
+
+	/**
+	 * Test the settlement date calculation logic.
+	 * 		Scenario:	Currency - sar (lower case)
+	 * 					Trade - BUY
+	 * 					Settlement Day - Saturday
+	 * @throws Exception
+	 */
+	@Test
+	public void testCalculateSettlementDateLowerCaseSARSaturday() throws Exception {
+		final Instruction instruction = new Instruction(
+				"Smart Trade",
+				TradeTxn.BUY,
+				BigDecimal.valueOf(0.5),
+				"sar",						// currency code for middle east region
+				LocalDate.of(2017, 6, 16),
+				LocalDate.of(2017, 6, 17), 	// settlement date falls on Saturday
+				200,
+				BigDecimal.valueOf(100.25));
+
+		// invoke business object to calculate settlement date
+		ReportFactory.getInstance().newSettlementDateBO().calculateSettlementDate(instruction);
+
+		// check against the expected value - the next business day for the current settlement date
+		Assert.assertEquals(LocalDate.of(2017, 6, 18), instruction.getSettlementDate());
+		Assert.assertEquals("SAR", instruction.getCurrency());
+	}
 }
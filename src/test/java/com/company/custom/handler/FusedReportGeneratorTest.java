@@ -0,0 +1,123 @@
+package com.company.custom.handler;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.company.report.entity.Instruction;
+import com.company.report.entity.InstructionStore;
+import com.company.report.entity.TradeReport;
+import com.company.report.entity.TradeTxn;
+import com.company.report.handler.IReport;
+import com.company.report.handler.IReportGenerator;
+import com.company.report.handler.impl.FusedReportGenerator;
+import com.company.report.handler.impl.IncomingAmountReportGenerator;
+import com.company.report.handler.impl.IncomingRankingReportGenerator;
+import com.company.report.handler.impl.OutgoingAmountReportGenerator;
+import com.company.report.handler.impl.OutgoingRankingReportGenerator;
+import com.company.report.handler.impl.TradeAmountReport;
+
+/**
+ * The test class for the single pass generation of the amount and ranking
+ * reports.
+ *
+ * @author prejith.devarajan
+ *
+ */
+public class FusedReportGeneratorTest {
+
+	private static final IReportGenerator[] SEPARATE_GENERATORS = {
+			new OutgoingRankingReportGenerator(),
+			new IncomingRankingReportGenerator(),
+			new OutgoingAmountReportGenerator(),
+			new IncomingAmountReportGenerator() };
+
+	/**
+	 * Test the fused generator prints the same reports as the separate
+	 * generators, for the instructions and for the rows of the columnar
+	 * instruction store
+	 */
+	@Test
+	public void testSameReports() {
+		final InstructionStore instructions = new InstructionStore();
+		final Random random = new Random(23);
+		for (int i = 0; i < 5000; i++) {
+			instructions.add(new Instruction(
+					"Entity #" + random.nextInt(40),
+					random.nextInt(4) == 0 ? TradeTxn.SELL : TradeTxn.BUY,
+					BigDecimal.valueOf(random.nextInt(100) + 1, 2),
+					"SGD",
+					LocalDate.of(2017, 6, 1),
+					LocalDate.of(2017, 6, 1),
+					random.nextInt(1000) + 1,
+					BigDecimal.valueOf(random.nextInt(100000), 1)));
+		}
+
+		final IReportGenerator fusedGenerator = new FusedReportGenerator();
+		final Map<TradeReport, IReport> expectedReport = new EnumMap<>(TradeReport.class);
+		final Map<TradeReport, IReport> fusedReport = new EnumMap<>(TradeReport.class);
+		final Map<TradeReport, IReport> fusedStoreReport = new EnumMap<>(TradeReport.class);
+
+		for (int row = 0; row < instructions.size(); row++) {
+			for (IReportGenerator generator : SEPARATE_GENERATORS) {
+				generator.generateReport(expectedReport, instructions.getInstruction(row));
+			}
+			fusedGenerator.generateReport(fusedReport, instructions.getInstruction(row));
+			fusedGenerator.generateReport(fusedStoreReport, instructions, row);
+		}
+
+		Assert.assertEquals(4, fusedReport.size());
+		Assert.assertEquals(print(expectedReport), print(fusedReport));
+		Assert.assertEquals(print(expectedReport), print(fusedStoreReport));
+	}
+
+	/**
+	 * Test all the reports are added with the first instruction of the date,
+	 * even if no instruction of the other trade transaction is available
+	 */
+	@Test
+	public void testAllReportsAdded() {
+		final Map<TradeReport, IReport> fusedReport = new EnumMap<>(TradeReport.class);
+		new FusedReportGenerator().generateReport(fusedReport, new Instruction("Entity #1", TradeTxn.BUY,
+				BigDecimal.ONE, "SGD", LocalDate.of(2017, 6, 1), LocalDate.of(2017, 6, 1), 10, BigDecimal.TEN));
+
+		Assert.assertEquals(4, fusedReport.size());
+		Assert.assertEquals(0, BigDecimal.ZERO.compareTo(
+				((TradeAmountReport) fusedReport.get(TradeReport.DAILY_INCOMING_AMOUNT_REPORT)).getAmount()));
+		Assert.assertEquals(0, BigDecimal.valueOf(100).compareTo(
+				((TradeAmountReport) fusedReport.get(TradeReport.DAILY_OUTGOING_AMOUNT_REPORT)).getAmount()));
+	}
+
+	/**
+	 * Test the generators are fused only if all the four generators are
+	 * registered
+	 */
+	@Test
+	public void testFuseAllGenerators() {
+		final List<IReportGenerator> generators = new ArrayList<>(Arrays.asList(SEPARATE_GENERATORS));
+		FusedReportGenerator.fuse(generators);
+		Assert.assertEquals(1, generators.size());
+		Assert.assertTrue(generators.get(0) instanceof FusedReportGenerator);
+
+		// only the outgoing amount report is registered
+		final List<IReportGenerator> amountGenerator = new ArrayList<>(
+				Arrays.asList(new OutgoingAmountReportGenerator()));
+		FusedReportGenerator.fuse(amountGenerator);
+		Assert.assertEquals(1, amountGenerator.size());
+		Assert.assertTrue(amountGenerator.get(0) instanceof OutgoingAmountReportGenerator);
+	}
+
+	private static String print(final Map<TradeReport, IReport> reports) {
+		final StringBuilder print = new StringBuilder();
+		reports.values().forEach(report -> print.append(report.printReport()));
+		return print.toString();
+	}
+}
@@ -0,0 +1,108 @@
+package com.company.custom.handler;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.company.report.ReportFactory;
+import com.company.report.bo.DailyReportBO;
+import com.company.report.entity.Instruction;
+import com.company.report.entity.TradeReport;
+import com.company.report.entity.TradeTxn;
+import com.company.report.handler.IReport;
+import com.company.report.handler.IReportExporter;
+import com.company.report.utils.DailyTradeReportingConstants;
+
+/**
+ * The test class for the machine readable export formats of the reports.
+ *
+ * @author prejith.devarajan
+ *
+ */
+public class ReportExporterTest {
+
+	private static final LocalDate SETTLEMENT_DATE = LocalDate.of(2017, 6, 12);
+
+	/**
+	 * Test the lines of the CSV format, the entity with the delimiter and the
+	 * quote is quoted
+	 *
+	 * @throws Exception
+	 */
+	@Test
+	public void testExportCSV() throws Exception {
+		final String[] lines = export(DailyTradeReportingConstants.REPORT_FORMAT_CSV).split("\n");
+
+		Assert.assertEquals("settlement_date,report,rank,entity,amount", lines[0]);
+		Assert.assertEquals("2017-06-12,DAILY_OUTGOING_AMOUNT_REPORT,,,100.000", lines[1]);
+		Assert.assertEquals("2017-06-12,DAILY_INCOMING_AMOUNT_REPORT,,,0.000", lines[2]);
+		Assert.assertEquals("2017-06-12,DAILY_OUTGOING_RANKING_REPORT,1,\"Smart, \"\"Money\"\"\",75.000", lines[3]);
+		Assert.assertEquals("2017-06-12,DAILY_OUTGOING_RANKING_REPORT,2,Sample Traders,25.000", lines[4]);
+		Assert.assertEquals(5, lines.length);
+	}
+
+	/**
+	 * Test the lines of the JSON Lines format, the quote in the entity is
+	 * escaped
+	 *
+	 * @throws Exception
+	 */
+	@Test
+	public void testExportJSONLines() throws Exception {
+		final String[] lines = export(DailyTradeReportingConstants.REPORT_FORMAT_JSONL).split("\n");
+
+		Assert.assertEquals("{\"settlementDate\":\"2017-06-12\",\"report\":\"DAILY_OUTGOING_AMOUNT_REPORT\","
+				+ "\"amount\":100.000}", lines[0]);
+		Assert.assertEquals("{\"settlementDate\":\"2017-06-12\",\"report\":\"DAILY_OUTGOING_RANKING_REPORT\","
+				+ "\"rank\":1,\"entity\":\"Smart, \\\"Money\\\"\",\"amount\":75.000}", lines[2]);
+		Assert.assertEquals(4, lines.length);
+	}
+
+	/**
+	 * Test the report which does not export its rows is exported as a single
+	 * row of its text
+	 *
+	 * @throws Exception
+	 */
+	@Test
+	public void testExportTextReport() throws Exception {
+		final Map<TradeReport, IReport> reportData = new EnumMap<>(TradeReport.class);
+		reportData.put(TradeReport.DAILY_INCOMING_AMOUNT_REPORT, () -> new StringBuilder("Settled \"early\"\n"));
+
+		final StringBuilder csv = new StringBuilder();
+		ReportFactory.getInstance().newReportExporter(DailyTradeReportingConstants.REPORT_FORMAT_CSV)
+				.exportDailyReports(SETTLEMENT_DATE, reportData, csv);
+		Assert.assertEquals("2017-06-12,DAILY_INCOMING_AMOUNT_REPORT,,\"Settled \"\"early\"\"\n\",\n",
+				csv.toString());
+
+		final StringBuilder jsonLines = new StringBuilder();
+		ReportFactory.getInstance().newReportExporter(DailyTradeReportingConstants.REPORT_FORMAT_JSONL)
+				.exportDailyReports(SETTLEMENT_DATE, reportData, jsonLines);
+		Assert.assertEquals("{\"settlementDate\":\"2017-06-12\",\"report\":\"DAILY_INCOMING_AMOUNT_REPORT\","
+				+ "\"entity\":\"Settled \\\"early\\\"\\u000a\"}\n", jsonLines.toString());
+	}
+
+	private String export(final String format) throws Exception {
+		final Set<Instruction> instructions = new HashSet<>();
+		instructions.add(new Instruction("Smart, \"Money\"", TradeTxn.BUY, BigDecimal.valueOf(0.5), "SGD",
+				LocalDate.of(2017, 6, 9), SETTLEMENT_DATE, 10, BigDecimal.valueOf(15)));
+		instructions.add(new Instruction("Sample Traders", TradeTxn.BUY, BigDecimal.valueOf(0.5), "SGD",
+				LocalDate.of(2017, 6, 9), SETTLEMENT_DATE, 10, BigDecimal.valueOf(5)));
+
+		final Map<LocalDate, Map<TradeReport, IReport>> tradeReports = new DailyReportBO()
+				.generateDailyReports(instructions);
+		final IReportExporter exporter = ReportFactory.getInstance().newReportExporter(format);
+
+		final StringBuilder out = new StringBuilder();
+		exporter.exportHeader(out);
+		exporter.exportDailyReports(SETTLEMENT_DATE, tradeReports.get(SETTLEMENT_DATE), out);
+		exporter.exportFooter(out);
+		return out.toString();
+	}
+}
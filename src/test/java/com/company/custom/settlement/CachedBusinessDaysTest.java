@@ -0,0 +1,59 @@
+package com.company.custom.settlement;
+
+import java.time.LocalDate;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.company.report.settlement.IBusinessDays;
+import com.company.report.settlement.impl.CachedBusinessDays;
+import com.company.report.settlement.impl.MiddleEastBusinessDays;
+
+/**
+ * The test class for the business days which remembers the actual settlement
+ * dates.
+ *
+ * @author prejith.devarajan
+ *
+ */
+public class CachedBusinessDaysTest {
+
+	private static final LocalDate HORIZON_FROM = LocalDate.of(2017, 6, 1);
+
+	private final IBusinessDays wrappedBusinessDays = MiddleEastBusinessDays.getInstance();
+
+	private final IBusinessDays businessDays = new CachedBusinessDays(wrappedBusinessDays, HORIZON_FROM, 30);
+
+	/**
+	 * Test the settlement date calculation logic against the wrapped business
+	 * days.
+	 * 		Scenario:	Settlement Day - the days before, within and after the horizon
+	 */
+	@Test
+	public void testSameAsWrappedBusinessDays() {
+		// the dates are found twice, the second time the remembered dates are read
+		for (int pass = 0; pass < 2; pass++) {
+			for (LocalDate date = HORIZON_FROM.minusDays(10); date.isBefore(HORIZON_FROM.plusDays(40));
+					date = date.plusDays(1)) {
+				final LocalDate expected = wrappedBusinessDays.findActualSettlementDate(date);
+
+				Assert.assertEquals(expected, businessDays.findActualSettlementDate(date));
+				Assert.assertEquals(expected.toEpochDay(), businessDays.findActualSettlementDay(date.toEpochDay()));
+			}
+		}
+	}
+
+	/**
+	 * Test the settlement date calculation logic with the epoch days.
+	 * 		Scenario:	Settlement Day - Friday within the horizon, not yet remembered
+	 */
+	@Test
+	public void testSettlementDayNotRemembered() {
+		// Friday is a weekend day for the Middle East region, Sunday is a business day
+		final LocalDate friday = LocalDate.of(2017, 6, 2);
+
+		Assert.assertEquals(LocalDate.of(2017, 6, 4).toEpochDay(),
+				businessDays.findActualSettlementDay(friday.toEpochDay()));
+		Assert.assertEquals(LocalDate.of(2017, 6, 4), businessDays.findActualSettlementDate(friday));
+	}
+}
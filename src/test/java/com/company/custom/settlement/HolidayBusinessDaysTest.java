@@ -0,0 +1,64 @@
+package com.company.custom.settlement;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.HashSet;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.company.report.settlement.impl.HolidayBusinessDays;
+
+/**
+ * The test class for the business days calendar with public holidays.
+ *
+ * @author prejith.devarajan
+ *
+ */
+public class HolidayBusinessDaysTest {
+
+	private final HolidayBusinessDays businessDays = new HolidayBusinessDays(
+			EnumSet.range(DayOfWeek.MONDAY, DayOfWeek.FRIDAY),
+			new HashSet<>(Arrays.asList(
+					LocalDate.of(2017, 12, 25),		// Monday
+					LocalDate.of(2017, 12, 26))),	// Tuesday
+			LocalDate.of(2017, 1, 1),
+			LocalDate.of(2017, 12, 31));
+
+	/**
+	 * Test the settlement date calculation logic.
+	 * 		Scenario:	Settlement Day - Saturday before the holidays
+	 */
+	@Test
+	public void testWeekendBeforeHolidays() {
+		Assert.assertEquals(LocalDate.of(2017, 12, 27),
+				businessDays.findActualSettlementDate(LocalDate.of(2017, 12, 23)));
+		Assert.assertFalse(businessDays.isBusinessDay(LocalDate.of(2017, 12, 26)));
+	}
+
+	/**
+	 * Test the settlement date calculation logic.
+	 * 		Scenario:	Settlement Day - Friday, a business day
+	 */
+	@Test
+	public void testBusinessDay() {
+		Assert.assertEquals(LocalDate.of(2017, 12, 22),
+				businessDays.findActualSettlementDate(LocalDate.of(2017, 12, 22)));
+	}
+
+	/**
+	 * Test the settlement date calculation logic.
+	 * 		Scenario:	Settlement Day - the last day of the range and outside the range
+	 */
+	@Test
+	public void testOutsideRange() {
+		// Sunday, the last day of the range
+		Assert.assertEquals(LocalDate.of(2018, 1, 1),
+				businessDays.findActualSettlementDate(LocalDate.of(2017, 12, 31)));
+		// Saturday, outside the range only the weekend days are known
+		Assert.assertEquals(LocalDate.of(2018, 12, 24),
+				businessDays.findActualSettlementDate(LocalDate.of(2018, 12, 22)));
+	}
+}
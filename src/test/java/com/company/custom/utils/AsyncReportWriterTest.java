@@ -0,0 +1,83 @@
+package com.company.custom.utils;
+
+import java.io.FilterWriter;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.Writer;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.company.report.utils.AsyncReportWriter;
+
+/**
+ * The test class for the writer which writes the reports on a separate thread.
+ *
+ * @author prejith.devarajan
+ *
+ */
+public class AsyncReportWriterTest {
+
+	/**
+	 * Test the text written to the sink by the writer thread against the text
+	 * written to the writer, over several chunks
+	 *
+	 * @throws Exception
+	 */
+	@Test
+	public void testWriteInOrder() throws Exception {
+		final StringWriter sink = new StringWriter();
+		final StringBuilder expected = new StringBuilder();
+
+		try (AsyncReportWriter reportWriter = new AsyncReportWriter(sink)) {
+			for (int line = 0; line < 50000; line++) {
+				final String text = "\t\t\t    " + line + "     |\tEntity #" + line + "\n";
+				reportWriter.append(text);
+				expected.append(text);
+			}
+			reportWriter.write("END".toCharArray());
+			expected.append("END");
+		}
+
+		Assert.assertEquals(expected.toString(), sink.toString());
+	}
+
+	/**
+	 * Test the writer is closed once the sink failed - the failure is thrown
+	 * by the first close, the writer thread is stopped and the writer stays
+	 * closed
+	 *
+	 * @throws Exception
+	 */
+	@Test(timeout = 10000)
+	public void testCloseAfterFailure() throws Exception {
+		final Writer failingSink = new FilterWriter(new StringWriter()) {
+			@Override
+			public void write(final String text) throws IOException {
+				throw new IOException("The sink failed");
+			}
+		};
+		final AsyncReportWriter reportWriter = new AsyncReportWriter(failingSink);
+		final char[] text = new char[100 * 1024];
+
+		// the chunk is queued and the failure of the writer thread is reported to a later call
+		reportWriter.write(text);
+		try {
+			while (true) {
+				reportWriter.flush();
+				Thread.sleep(10);
+			}
+		} catch (IOException e) {
+			Assert.assertEquals("The sink failed", e.getMessage());
+		}
+
+		try {
+			reportWriter.close();
+			Assert.fail("The failure of the sink is expected to be thrown by close");
+		} catch (IOException e) {
+			Assert.assertEquals("The sink failed", e.getMessage());
+		}
+		// the writer is already closed
+		reportWriter.close();
+	}
+}
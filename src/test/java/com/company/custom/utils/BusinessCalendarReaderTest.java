@@ -0,0 +1,65 @@
+package com.company.custom.utils;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.function.UnaryOperator;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.company.report.settlement.impl.BusinessCalendars;
+import com.company.report.utils.BusinessCalendarReader;
+import com.company.report.utils.DailyTradeReportingConstants;
+
+/**
+ * The test class for the reader of the business calendar and holiday files.
+ *
+ * @author prejith.devarajan
+ *
+ */
+public class BusinessCalendarReaderTest {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	@After
+	public void clearProperties() {
+		System.clearProperty(DailyTradeReportingConstants.CALENDARS_FILE_PROPERTY);
+	}
+
+	/**
+	 * Test the holiday file is read from the directory of the business
+	 * calendar file, not from the working directory
+	 *
+	 * @throws Exception
+	 */
+	@Test
+	public void testHolidaysNextToCalendars() throws Exception {
+		final File calendarsFolder = folder.newFolder("calendars");
+		final File calendarsFile = new File(calendarsFolder, "business-calendars.properties");
+		Files.write(calendarsFile.toPath(), Arrays.asList(
+				"calendar.range.from=2017-01-01",
+				"calendar.range.to=2017-12-31",
+				"calendar.MIDDLE_EAST.businessDays=SUNDAY,MONDAY,TUESDAY,WEDNESDAY,THURSDAY",
+				"calendar.default=MIDDLE_EAST",
+				"holidays.file=holidays.csv"), StandardCharsets.UTF_8);
+		Files.write(new File(calendarsFolder, "holidays.csv").toPath(), Arrays.asList(
+				"# the holiday on a Sunday",
+				"MIDDLE_EAST,03 Dec 2017"), StandardCharsets.UTF_8);
+		System.setProperty(DailyTradeReportingConstants.CALENDARS_FILE_PROPERTY, calendarsFile.getAbsolutePath());
+
+		final BusinessCalendars calendars = BusinessCalendarReader.readCalendars(UnaryOperator.identity());
+
+		// Saturday before the holiday
+		Assert.assertEquals(LocalDate.of(2017, 12, 4),
+				calendars.getBusinessDays("AED").findActualSettlementDate(LocalDate.of(2017, 12, 2)));
+		Assert.assertEquals(LocalDate.of(2017, 12, 5),
+				calendars.getBusinessDays("AED").findActualSettlementDate(LocalDate.of(2017, 12, 5)));
+	}
+}
@@ -0,0 +1,59 @@
+package com.company.custom.utils;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.company.report.utils.EpochDayMap;
+
+/**
+ * The test class for the map of the dates keyed by the epoch day.
+ *
+ * @author prejith.devarajan
+ *
+ */
+public class EpochDayMapTest {
+
+	/**
+	 * Test the dates are iterated in order and the dates within a range are
+	 * the same as the dates of a sorted map within the range
+	 */
+	@Test
+	public void testOrderedDatesAndRange() {
+		final EpochDayMap<Integer> dates = new EpochDayMap<>();
+		final TreeMap<LocalDate, Integer> expected = new TreeMap<>();
+		final Random random = new Random(17);
+		final LocalDate first = LocalDate.of(2017, 1, 1);
+
+		for (int i = 0; i < 1000; i++) {
+			final LocalDate date = first.plusDays(random.nextInt(3000));
+			dates.put(date, i);
+			expected.put(date, i);
+		}
+
+		Assert.assertEquals(new ArrayList<>(expected.keySet()), new ArrayList<>(dates.keySet()));
+		Assert.assertEquals(expected, dates);
+
+		final LocalDate from = first.plusDays(500);
+		final LocalDate to = first.plusDays(900);
+		final Map<LocalDate, Integer> range = dates.subMap(from, to);
+		final List<LocalDate> expectedRange = new ArrayList<>(expected.subMap(from, true, to, true).keySet());
+
+		Assert.assertEquals(expectedRange, new ArrayList<>(range.keySet()));
+		Assert.assertEquals(expectedRange.size(), range.size());
+		Assert.assertNull(range.get(expected.lowerKey(from)));
+		Assert.assertEquals(expected.get(expectedRange.get(0)), range.get(expectedRange.get(0)));
+
+		// the dates put later are seen by the range
+		final LocalDate newDate = first.plusDays(3001 + random.nextInt(10));
+		Assert.assertTrue(dates.subMap(newDate, newDate).isEmpty());
+		dates.put(newDate, -1);
+		Assert.assertEquals(Integer.valueOf(-1), dates.subMap(newDate, LocalDate.MAX).get(newDate));
+	}
+}
@@ -0,0 +1,67 @@
+package com.company.custom.utils;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.company.report.entity.Instruction;
+import com.company.report.entity.TradeTxn;
+import com.company.report.utils.FixedPointMath;
+import com.company.report.utils.MoneyAccumulator;
+
+/**
+ * The test class for the fixed point calculation of the trade amounts.
+ *
+ * @author prejith.devarajan
+ *
+ */
+public class FixedPointMathTest {
+
+	/**
+	 * Test the fixed point trade amount against the decimal trade amount
+	 */
+	@Test
+	public void testTradeAmount() {
+		final Instruction instruction = newInstruction(BigDecimal.valueOf(0.015), 1000, BigDecimal.valueOf(52.25));
+
+		Assert.assertEquals(0, FixedPointMath.toBigDecimal(instruction.getFixedPointTradeAmount())
+				.compareTo(instruction.getTradeAmount()));
+		Assert.assertEquals(new BigDecimal("783.75000"), instruction.getTradeAmount());
+	}
+
+	/**
+	 * Test the trade amounts which could not be held as fixed point amount
+	 */
+	@Test
+	public void testTradeAmountOverflow() {
+		// the scale is finer than the fixed point scale
+		Assert.assertEquals(FixedPointMath.OVERFLOW, FixedPointMath.tradeAmount(1, 4, 1, 1, 4));
+		// the trailing zeros beyond the fixed point scale are fine
+		Assert.assertEquals(1000000, FixedPointMath.tradeAmount(10000, 4, 1, 10000, 4));
+		// the value is beyond the range of long
+		Assert.assertEquals(FixedPointMath.OVERFLOW, FixedPointMath.tradeAmount(Long.MAX_VALUE / 2, 0, 3, 1, 0));
+	}
+
+	/**
+	 * Test the sum moves over to decimal when the long sum overflows
+	 */
+	@Test
+	public void testAccumulatorOverflow() {
+		final MoneyAccumulator accumulator = new MoneyAccumulator();
+		accumulator.add(Long.MAX_VALUE);
+		accumulator.add(Long.MAX_VALUE);
+		accumulator.add(newInstruction(new BigDecimal("0.0000001"), 10, BigDecimal.ONE));
+
+		final BigDecimal expected = FixedPointMath.toBigDecimal(Long.MAX_VALUE).multiply(BigDecimal.valueOf(2))
+				.add(new BigDecimal("0.000001"));
+		Assert.assertEquals(0, expected.compareTo(accumulator.toBigDecimal()));
+	}
+
+	private static Instruction newInstruction(final BigDecimal agreedFx, final int units,
+			final BigDecimal pricePerUnit) {
+		return new Instruction("Entity #1", TradeTxn.BUY, agreedFx, "EUR",
+				LocalDate.of(2017, 6, 9), LocalDate.of(2017, 6, 12), units, pricePerUnit);
+	}
+}
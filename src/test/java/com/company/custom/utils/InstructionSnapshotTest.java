@@ -0,0 +1,88 @@
+package com.company.custom.utils;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.LocalDate;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.company.report.entity.Instruction;
+import com.company.report.entity.InstructionStore;
+import com.company.report.entity.TradeTxn;
+import com.company.report.utils.InstructionSnapshot;
+
+/**
+ * The test class for the binary snapshot of the instructions.
+ *
+ * @author prejith.devarajan
+ *
+ */
+public class InstructionSnapshotTest {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	/**
+	 * Test the instructions loaded from the snapshot against the instructions
+	 * written to the snapshot
+	 *
+	 * @throws Exception
+	 */
+	@Test
+	public void testWriteAndRead() throws Exception {
+		final InstructionStore instructions = new InstructionStore();
+		instructions.add(new Instruction("Sample Traders", TradeTxn.BUY, BigDecimal.valueOf(0.5), "SGD",
+				LocalDate.of(2017, 1, 1), LocalDate.of(2017, 1, 2), 200, BigDecimal.valueOf(100.25)));
+		// the agreed fx does not fit a long
+		instructions.add(new Instruction("MoneyMax", TradeTxn.SELL, new BigDecimal("12345678901234567890.5"), "AED",
+				LocalDate.of(2017, 1, 6), LocalDate.of(2017, 1, 7), 10, BigDecimal.valueOf(2)));
+		instructions.add(new Instruction("Sample Traders", TradeTxn.SELL, BigDecimal.valueOf(0.27), "AED",
+				LocalDate.of(2017, 1, 6), LocalDate.of(2017, 1, 7), 150, BigDecimal.valueOf(120)));
+
+		final Path snapshotPath = folder.newFile("instructions.snapshot").toPath();
+		InstructionSnapshot.write(instructions, snapshotPath, InstructionSnapshot.FeedVersion.of(null));
+		final InstructionStore snapshot = InstructionSnapshot.read(snapshotPath);
+
+		Assert.assertEquals(instructions.size(), snapshot.size());
+		for (int row = 0; row < instructions.size(); row++) {
+			final Instruction expected = instructions.getInstruction(row);
+			final Instruction actual = snapshot.getInstruction(row);
+
+			Assert.assertEquals(expected.getEntity(), actual.getEntity());
+			Assert.assertEquals(expected.getTradeTxn(), actual.getTradeTxn());
+			Assert.assertEquals(expected.getCurrency(), actual.getCurrency());
+			Assert.assertEquals(expected.getSettlementDate(), actual.getSettlementDate());
+			Assert.assertEquals(expected.getTradeAmount(), actual.getTradeAmount());
+		}
+		Assert.assertTrue(snapshot.isDecimalInstruction(1));
+	}
+
+	/**
+	 * Test the snapshot is current only while the data feed is not changed
+	 *
+	 * @throws Exception
+	 */
+	@Test
+	public void testSnapshotOfChangedFeed() throws Exception {
+		final Path feedPath = folder.newFile("instructions.csv").toPath();
+		Files.write(feedPath, "Sample Traders,B,0.5,SGD,01 Jan 2017,02 Jan 2017,200,100.25\n"
+				.getBytes(StandardCharsets.UTF_8));
+		final Path snapshotPath = folder.getRoot().toPath().resolve("instructions.snapshot");
+		Assert.assertFalse(InstructionSnapshot.isCurrent(snapshotPath, feedPath));
+
+		InstructionSnapshot.write(new InstructionStore(), snapshotPath, InstructionSnapshot.FeedVersion.of(feedPath));
+		Assert.assertTrue(InstructionSnapshot.isCurrent(snapshotPath, feedPath));
+
+		// the feed of the next day is written to the same file
+		Files.write(feedPath, "John Traders,S,1.1,EUR,02 Jan 2017,03 Jan 2017,100,90.25\n"
+				.getBytes(StandardCharsets.UTF_8));
+		Files.setLastModifiedTime(feedPath, FileTime.fromMillis(Files.getLastModifiedTime(feedPath).toMillis() + 1000));
+		Assert.assertFalse(InstructionSnapshot.isCurrent(snapshotPath, feedPath));
+	}
+}
@@ -0,0 +1,49 @@
+package com.company.custom.utils;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.company.report.utils.LatencyHistogram;
+
+/**
+ * The test class for the histogram of the durations.
+ *
+ * @author prejith.devarajan
+ *
+ */
+public class LatencyHistogramTest {
+
+	/**
+	 * Test the percentiles of the histogram are within the precision of the
+	 * buckets
+	 */
+	@Test
+	public void testPercentiles() {
+		final LatencyHistogram histogram = new LatencyHistogram();
+		for (long nanos = 1; nanos <= 100000; nanos++) {
+			histogram.record(nanos);
+		}
+
+		Assert.assertEquals(100000, histogram.getCount());
+		Assert.assertEquals(50000.5, histogram.getMean(), 0.001);
+		assertWithinPrecision(50000, histogram.getPercentile(50));
+		assertWithinPrecision(99000, histogram.getPercentile(99));
+		assertWithinPrecision(100000, histogram.getMax());
+
+		// the small durations are exact
+		histogram.record(0);
+		Assert.assertEquals(0, histogram.getPercentile(0));
+		Assert.assertEquals(Long.MAX_VALUE, recordMax().getMax());
+	}
+
+	private static LatencyHistogram recordMax() {
+		final LatencyHistogram histogram = new LatencyHistogram();
+		histogram.record(Long.MAX_VALUE);
+		return histogram;
+	}
+
+	private static void assertWithinPrecision(final long expected, final long actual) {
+		Assert.assertTrue("expected " + expected + " but was " + actual,
+				actual >= expected && actual <= expected * 1.04);
+	}
+}
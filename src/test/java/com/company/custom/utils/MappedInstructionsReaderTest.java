@@ -0,0 +1,190 @@
+package com.company.custom.utils;
+
+import java.io.File;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.company.report.entity.Instruction;
+import com.company.report.entity.TradeTxn;
+import com.company.report.utils.DailyTradeReportingConstants;
+import com.company.report.utils.InstructionsCSVReader;
+import com.company.report.utils.MappedInstructionsReader;
+
+/**
+ * The test class for the memory mapped reader of the instructions data feed.
+ *
+ * @author prejith.devarajan
+ *
+ */
+public class MappedInstructionsReaderTest {
+
+	private static final String FEED =
+			"Sample Traders,B,0.5,SGP,01 Jan 2017,02 Jan 2017,200,100.25\r\n"
+			+ "\"Smart, Money\",S,1.1,EUR,01 Jan 2017,02 Jan 2017,500,250.25\n"
+			+ "\n"
+			+ "MoneyMax,B,0.015,INR,06 Jan 2017,07 Jan 2017,1000,52.25\n"
+			+ "Sample Traders,S,0.27,AED,06 Jan 2017,07 Jan 2017,150,120";
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	@After
+	public void clearProperties() {
+		System.clearProperty(DailyTradeReportingConstants.INSTRUCTIONS_FILE_PROPERTY);
+		System.clearProperty(DailyTradeReportingConstants.INSTRUCTIONS_READER_PROPERTY);
+	}
+
+	/**
+	 * Test the fields decoded from the bytes of the feed file
+	 *
+	 * @throws Exception
+	 */
+	@Test
+	public void testReadInstructions() throws Exception {
+		final List<Instruction> instructions = new ArrayList<>();
+		new MappedInstructionsReader(writeFeed().toPath()).read(instructions::add);
+
+		Assert.assertEquals(4, instructions.size());
+
+		final Instruction first = instructions.get(0);
+		Assert.assertEquals("Sample Traders", first.getEntity());
+		Assert.assertEquals(TradeTxn.BUY, first.getTradeTxn());
+		Assert.assertEquals(new BigDecimal("0.5"), first.getAgreedFx());
+		Assert.assertEquals("SGP", first.getCurrency());
+		Assert.assertEquals(LocalDate.of(2017, 1, 1), first.getInstructionDate());
+		Assert.assertEquals(LocalDate.of(2017, 1, 2), first.getSettlementDate());
+		Assert.assertEquals(200, first.getUnits());
+		Assert.assertEquals(new BigDecimal("100.25"), first.getPricePerUnit());
+
+		// quoted entity with the delimiter
+		Assert.assertEquals("Smart, Money", instructions.get(1).getEntity());
+		Assert.assertEquals(TradeTxn.SELL, instructions.get(1).getTradeTxn());
+
+		// the same entity text is shared between the instructions
+		Assert.assertSame(first.getEntity(), instructions.get(3).getEntity());
+		// the last line without a line separator
+		Assert.assertEquals(new BigDecimal("120"), instructions.get(3).getPricePerUnit());
+	}
+
+	/**
+	 * Test the memory mapped reader against the opencsv reader
+	 *
+	 * @throws Exception
+	 */
+	@Test
+	public void testReadersMatch() throws Exception {
+		final File feed = writeFeed();
+		System.setProperty(DailyTradeReportingConstants.INSTRUCTIONS_FILE_PROPERTY, feed.getAbsolutePath());
+
+		final List<Instruction> mapped = new ArrayList<>();
+		InstructionsCSVReader.readInstructions(mapped::add);
+
+		// the opencsv reader does not skip the empty lines
+		Files.write(feed.toPath(), FEED.replace("\n\n", "\n").getBytes(StandardCharsets.UTF_8));
+		System.setProperty(DailyTradeReportingConstants.INSTRUCTIONS_READER_PROPERTY,
+				DailyTradeReportingConstants.INSTRUCTIONS_READER_OPENCSV);
+		final List<Instruction> opencsv = new ArrayList<>();
+		InstructionsCSVReader.readInstructions(opencsv::add);
+
+		Assert.assertEquals(opencsv.size(), mapped.size());
+		for (int i = 0; i < opencsv.size(); i++) {
+			Assert.assertEquals(opencsv.get(i).getEntity(), mapped.get(i).getEntity());
+			Assert.assertEquals(opencsv.get(i).getCurrency(), mapped.get(i).getCurrency());
+			Assert.assertEquals(opencsv.get(i).getSettlementDate(), mapped.get(i).getSettlementDate());
+			Assert.assertEquals(opencsv.get(i).getTradeAmount(), mapped.get(i).getTradeAmount());
+		}
+	}
+
+	/**
+	 * Test a day after the end of the month is resolved to the last day of the
+	 * month, the same as by the opencsv reader
+	 *
+	 * @throws Exception
+	 */
+	@Test
+	public void testEndOfMonthDate() throws Exception {
+		final File feed = folder.newFile("end-of-month.csv");
+		Files.write(feed.toPath(), "MoneyMax,B,0.015,INR,31 Jan 2017,31 Feb 2017,1000,52.25\n"
+				.getBytes(StandardCharsets.UTF_8));
+
+		final List<Instruction> mapped = new ArrayList<>();
+		new MappedInstructionsReader(feed.toPath()).read(mapped::add);
+		Assert.assertEquals(LocalDate.of(2017, 2, 28), mapped.get(0).getSettlementDate());
+
+		System.setProperty(DailyTradeReportingConstants.INSTRUCTIONS_FILE_PROPERTY, feed.getAbsolutePath());
+		System.setProperty(DailyTradeReportingConstants.INSTRUCTIONS_READER_PROPERTY,
+				DailyTradeReportingConstants.INSTRUCTIONS_READER_OPENCSV);
+		final List<Instruction> opencsv = new ArrayList<>();
+		InstructionsCSVReader.readInstructions(opencsv::add);
+		Assert.assertEquals(opencsv.get(0).getSettlementDate(), mapped.get(0).getSettlementDate());
+	}
+
+	/**
+	 * Test the byte ranges of the feed file are aligned on the line boundaries
+	 * and cover all the instructions
+	 *
+	 * @throws Exception
+	 */
+	@Test
+	public void testSplit() throws Exception {
+		final File feed = writeFeed();
+		final long[] offsets = MappedInstructionsReader.split(feed.toPath(), 3);
+
+		Assert.assertEquals(0, offsets[0]);
+		Assert.assertEquals(feed.length(), offsets[3]);
+
+		final List<Instruction> instructions = new ArrayList<>();
+		final MappedInstructionsReader reader = new MappedInstructionsReader(feed.toPath());
+		for (int part = 0; part < 3; part++) {
+			reader.read(offsets[part], offsets[part + 1], instructions::add);
+			Assert.assertEquals(offsets[part + 1], reader.getPosition());
+		}
+		Assert.assertEquals(4, instructions.size());
+		Assert.assertEquals("MoneyMax", instructions.get(2).getEntity());
+	}
+
+	/**
+	 * Test only the complete lines are read while the feed is appended, the
+	 * trailing line is read once its line separator is appended
+	 *
+	 * @throws Exception
+	 */
+	@Test
+	public void testReadAppended() throws Exception {
+		final File feed = writeFeed();
+		final MappedInstructionsReader reader = new MappedInstructionsReader(feed.toPath());
+
+		final List<Instruction> instructions = new ArrayList<>();
+		final long position = reader.readAppended(0, instructions::add);
+		Assert.assertEquals(3, instructions.size());
+		Assert.assertEquals(FEED.lastIndexOf('\n') + 1, position);
+
+		// nothing is read until the line is complete
+		Assert.assertEquals(position, reader.readAppended(position, instructions::add));
+		Assert.assertEquals(3, instructions.size());
+
+		Files.write(feed.toPath(), "\nMoneyMax,S,0.5,SGP,06 Jan 2017,07 Jan 2017,10,1\n".getBytes(StandardCharsets.UTF_8),
+				StandardOpenOption.APPEND);
+		Assert.assertEquals(feed.length(), reader.readAppended(position, instructions::add));
+		Assert.assertEquals(5, instructions.size());
+		Assert.assertEquals(new BigDecimal("120"), instructions.get(3).getPricePerUnit());
+		Assert.assertEquals(TradeTxn.SELL, instructions.get(4).getTradeTxn());
+	}
+
+	private File writeFeed() throws Exception {
+		final File feed = folder.newFile("trade-instructions.csv");
+		Files.write(feed.toPath(), FEED.getBytes(StandardCharsets.UTF_8));
+		return feed;
+	}
+}
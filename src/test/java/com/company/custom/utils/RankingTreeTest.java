@@ -0,0 +1,100 @@
+package com.company.custom.utils;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.company.report.utils.CommonUtils;
+import com.company.report.utils.FixedPointMath;
+import com.company.report.utils.MoneyAccumulator;
+import com.company.report.utils.RankingTree;
+
+/**
+ * The test class for the ranking maintained while the trade amounts are added.
+ *
+ * @author prejith.devarajan
+ *
+ */
+public class RankingTreeTest {
+
+	/**
+	 * Test the rank and the top entities against a full sort of the entities
+	 */
+	@Test
+	public void testRanking() {
+		final RankingTree<String> rankingTree = new RankingTree<>();
+		final Map<String, MoneyAccumulator> entityAmounts = new HashMap<>();
+		final Random random = new Random(7);
+
+		for (int i = 0; i < 5000; i++) {
+			final String entity = "entity" + random.nextInt(300);
+			final MoneyAccumulator entityAmount = entityAmounts.computeIfAbsent(entity, key -> new MoneyAccumulator());
+
+			entityAmount.add(random.nextInt(1000000) * 10000L);
+			rankingTree.update(entity, entityAmount);
+		}
+
+		final Map<String, BigDecimal> amounts = new HashMap<>();
+		entityAmounts.forEach((entity, entityAmount) -> amounts.put(entity, entityAmount.toBigDecimal()));
+		final List<BigDecimal> sorted = new ArrayList<>(CommonUtils.sortMapByValue(amounts).values());
+
+		Assert.assertEquals(entityAmounts.size(), rankingTree.size());
+		Assert.assertEquals(sorted.subList(0, 10), new ArrayList<>(rankingTree.getTop(10).values()));
+		Assert.assertEquals(sorted, new ArrayList<>(rankingTree.getTop(0).values()));
+
+		int rank = 0;
+		for (String entity : rankingTree.getTop(0).keySet()) {
+			Assert.assertEquals(++rank, rankingTree.getRank(entity));
+		}
+		Assert.assertEquals(0, rankingTree.getRank("unknown"));
+	}
+
+	/**
+	 * Test the ranking of a trade amount which is not held as fixed point amount
+	 */
+	@Test
+	public void testDecimalAmount() {
+		final RankingTree<String> rankingTree = new RankingTree<>();
+		final MoneyAccumulator small = new MoneyAccumulator();
+		final MoneyAccumulator large = new MoneyAccumulator();
+
+		small.add(FixedPointMath.unscaledValue(BigDecimal.TEN.setScale(FixedPointMath.SCALE)));
+		large.add(new BigDecimal("1E+30"));
+		rankingTree.update("small", small);
+		rankingTree.update("large", large);
+
+		Assert.assertEquals(1, rankingTree.getRank("large"));
+		Assert.assertEquals(2, rankingTree.getRank("small"));
+	}
+
+	/**
+	 * Test the entities with the same trade amount are ranked by the entity,
+	 * the same way by the full sort, the top entities and the ranking tree
+	 */
+	@Test
+	public void testTiedAmounts() {
+		final RankingTree<String> rankingTree = new RankingTree<>();
+		final Map<String, BigDecimal> amounts = new HashMap<>();
+
+		for (String entity : new String[] { "Entity #3", "Entity #1", "Entity #4", "Entity #2", "Entity #5" }) {
+			final MoneyAccumulator entityAmount = new MoneyAccumulator();
+			entityAmount.add(FixedPointMath.unscaledValue(BigDecimal.valueOf("Entity #4".equals(entity) ? 20 : 10)
+					.setScale(FixedPointMath.SCALE)));
+			rankingTree.update(entity, entityAmount);
+			amounts.put(entity, entityAmount.toBigDecimal());
+		}
+
+		final List<String> ranking = new ArrayList<>(CommonUtils.sortMapByValue(amounts).keySet());
+		Assert.assertEquals(Arrays.asList("Entity #4", "Entity #1", "Entity #2", "Entity #3", "Entity #5"), ranking);
+		Assert.assertEquals(ranking.subList(0, 3), new ArrayList<>(CommonUtils.topByValue(amounts, 3).keySet()));
+		Assert.assertEquals(ranking.subList(0, 3), new ArrayList<>(rankingTree.getTop(3).keySet()));
+		Assert.assertEquals(ranking, new ArrayList<>(rankingTree.getTop(0).keySet()));
+	}
+}